@@ -0,0 +1,101 @@
+package uk.gov.hmcts.reform.migration;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import uk.gov.hmcts.reform.migration.MigrationHarness.MigrationRun;
+import uk.gov.hmcts.reform.migration.stub.CcdStubServer;
+import uk.gov.hmcts.reform.migration.stub.StubSettings;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static uk.gov.hmcts.reform.migration.stub.CcdStubServer.Endpoint.IDAM_TOKEN;
+import static uk.gov.hmcts.reform.migration.stub.CcdStubServer.Endpoint.SUBMIT_EVENT;
+import static uk.gov.hmcts.reform.migration.stub.CcdStubServer.FIRST_REFERENCE;
+
+class CaseMigrationProcessorIntegrationTest {
+
+    private static final int CASES = 250;
+
+    private static CcdStubServer stub;
+
+    @BeforeAll
+    static void startStub() {
+        stub = new CcdStubServer(StubSettings.withCases(CASES));
+    }
+
+    @AfterAll
+    static void stopStub() {
+        stub.close();
+    }
+
+    @Test
+    void shouldMigrateEveryCaseFoundInEs() {
+        stub.reset(StubSettings.withCases(CASES).latency(Duration.ofMillis(2), Duration.ofMillis(2)));
+
+        MigrationRun run = MigrationHarness.migrateQuery(stub.getUrl(), Map.of(
+            "default.thread.limit", 4,
+            "default.query.size", 40,
+            "case-migration.elasticsearch.slices", 3));
+
+        assertThat(run.migrated()).isEqualTo(CASES);
+        assertThat(run.failed()).isZero();
+        assertThat(stub.getSubmittedCases()).hasSize(CASES);
+        assertThat(stub.requests(SUBMIT_EVENT)).isEqualTo(CASES);
+        assertThat(stub.requests(IDAM_TOKEN)).isEqualTo(1);
+    }
+
+    @Test
+    void shouldMigrateAListOfCasesOnVirtualThreads() {
+        stub.reset(StubSettings.withCases(CASES));
+        List<String> caseIds = stub.references().subList(0, 100);
+
+        MigrationRun run = MigrationHarness.migrateList(stub.getUrl(), caseIds, Map.of(
+            "default.thread.limit", 16,
+            "default.thread.mode", ExecutorMode.VIRTUAL));
+
+        assertThat(run.migrated()).isEqualTo(100);
+        assertThat(stub.getSubmittedCases()).hasSize(100);
+    }
+
+    @Test
+    void shouldMigrateTheCasesListedInAFile(@TempDir Path dir) throws IOException {
+        stub.reset(StubSettings.withCases(CASES));
+        Path file = dir.resolve("cases.txt.gz");
+        try (Writer writer = new OutputStreamWriter(new GZIPOutputStream(Files.newOutputStream(file)),
+            StandardCharsets.US_ASCII)) {
+            for (String caseId : stub.references()) {
+                writer.write(caseId + "\n");
+            }
+        }
+
+        MigrationRun run = MigrationHarness.migrateFile(stub.getUrl(), file, Map.of("default.thread.limit", 8));
+
+        assertThat(run.migrated()).isEqualTo(CASES);
+        assertThat(stub.getSubmittedCases()).hasSize(CASES);
+    }
+
+    @Test
+    void shouldRecordCasesCcdFailsFor() {
+        Set<Long> failing = Set.of(FIRST_REFERENCE + 7, FIRST_REFERENCE + 42, FIRST_REFERENCE + 199);
+        stub.reset(StubSettings.withCases(CASES).errors(0, 500).failing(failing));
+
+        MigrationRun run = MigrationHarness.migrateQuery(stub.getUrl(), Map.of("default.thread.limit", 4));
+
+        assertThat(run.failed()).isEqualTo(failing.size());
+        assertThat(run.migrated()).isEqualTo(CASES - failing.size());
+        assertThat(stub.getSubmittedCases()).doesNotContainAnyElementsOf(failing);
+    }
+}
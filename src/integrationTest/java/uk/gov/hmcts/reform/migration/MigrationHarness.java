@@ -0,0 +1,131 @@
+package uk.gov.hmcts.reform.migration;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import uk.gov.hmcts.reform.migration.results.LatencyHistogram;
+import uk.gov.hmcts.reform.migration.service.DataMigrationService;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Starts the migration tool against a stub and runs one migration in it, as the runner would.
+ *
+ * <p>The processor can only run one migration, so every run gets a fresh application context.
+ */
+public final class MigrationHarness {
+
+    private MigrationHarness() {
+    }
+
+    public static MigrationRun migrateQuery(String stubUrl, Map<String, Object> properties) {
+        return run(stubUrl, properties, (context, processor) -> {
+            String migrationId = context.getEnvironment().getProperty("case-migration.processing.id");
+            processor.migrateQuery(context.getBean(DataMigrationService.class).getQuery(migrationId));
+        });
+    }
+
+    public static MigrationRun migrateList(String stubUrl, List<String> caseIds, Map<String, Object> properties) {
+        return run(stubUrl, properties, (context, processor) -> processor.migrateList(caseIds));
+    }
+
+    public static MigrationRun migrateFile(String stubUrl, Path caseIdFile, Map<String, Object> properties) {
+        return run(stubUrl, properties, (context, processor) -> processor.migrateFile(caseIdFile));
+    }
+
+    private static MigrationRun run(String stubUrl, Map<String, Object> properties, Migration migration) {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("idam.api.url", stubUrl);
+        settings.put("idam.s2s-auth.url", stubUrl);
+        settings.put("core_case_data.api.url", stubUrl);
+        settings.put("case-migration.enabled", false);
+        settings.put("case-migration.processing.id", "ADOP-2555");
+        settings.put("case-migration.retry_failures", false);
+        settings.put("case-migration.checkpoint.dir", "");
+        settings.put("case-migration.results.dir", "");
+        settings.put("default.query.size", 100);
+        settings.put("logging.level.uk.gov.hmcts.reform.migration", "WARN");
+        settings.putAll(properties);
+        // as arguments, so they win over application.properties
+        String[] args = settings.entrySet().stream()
+            .map(setting -> "--" + setting.getKey() + "=" + setting.getValue())
+            .toArray(String[]::new);
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(CaseMigrationRunner.class)
+            .logStartupInfo(false)
+            .run(args)) {
+            CaseMigrationProcessor processor = context.getBean(CaseMigrationProcessor.class);
+            System.gc();
+            List<MemoryPoolMXBean> heap = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+            heap.forEach(MemoryPoolMXBean::resetPeakUsage);
+            long gcCount = gcCount();
+            long gcMillis = gcMillis();
+
+            long start = System.nanoTime();
+            migration.run(context, processor);
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+            LatencyHistogram latency = processor.getUpdateLatency();
+            return new MigrationRun(
+                processor.getMigratedCases().size(),
+                processor.getSkippedCases().size(),
+                processor.getFailedCases().size(),
+                elapsed,
+                latency.percentile(0.5),
+                latency.percentile(0.95),
+                latency.percentile(0.99),
+                heap.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum(),
+                gcCount() - gcCount,
+                gcMillis() - gcMillis);
+        }
+    }
+
+    private static long gcCount() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+            .mapToLong(GarbageCollectorMXBean::getCollectionCount)
+            .sum();
+    }
+
+    private static long gcMillis() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+            .mapToLong(GarbageCollectorMXBean::getCollectionTime)
+            .sum();
+    }
+
+    @FunctionalInterface
+    private interface Migration {
+        void run(ConfigurableApplicationContext context, CaseMigrationProcessor processor);
+    }
+
+    /**
+     * What one run did and what it cost.
+     */
+    public record MigrationRun(int migrated,
+                               int skipped,
+                               int failed,
+                               Duration elapsed,
+                               Duration p50,
+                               Duration p95,
+                               Duration p99,
+                               long peakHeapBytes,
+                               long gcCount,
+                               long gcMillis) {
+
+        public int processed() {
+            return migrated + skipped + failed;
+        }
+
+        public double casesPerSecond() {
+            return processed() / Math.max(elapsed.toNanos() / 1e9, 1e-9);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package uk.gov.hmcts.reform.migration;
+
+import uk.gov.hmcts.reform.migration.MigrationHarness.MigrationRun;
+import uk.gov.hmcts.reform.migration.stub.CcdStubServer;
+import uk.gov.hmcts.reform.migration.stub.StubSettings;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Runs the migration against {@link CcdStubServer} for every combination of executor mode and thread count, and
+ * prints the throughput, case update latency and memory of each.
+ *
+ * <p>Run with {@code ./gradlew migrationBenchmark}, settings are passed as {@code -Pbenchmark.<name>=<value>}:
+ * {@code cases}, {@code threads}, {@code modes}, {@code sources} (QUERY, LIST and/or FILE), {@code latency_ms},
+ * {@code jitter_ms}, {@code error_rate}, {@code slices} and {@code query_size}.
+ */
+public final class MigrationThroughputBenchmark {
+
+    private MigrationThroughputBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int cases = Integer.getInteger("benchmark.cases", 5_000);
+        List<Integer> threads = list("benchmark.threads", "8,32").stream().map(Integer::valueOf).toList();
+        List<String> modes = list("benchmark.modes", "FORK_JOIN,VIRTUAL");
+        List<String> sources = list("benchmark.sources", "QUERY,LIST");
+        StubSettings settings = StubSettings.withCases(cases)
+            .latency(Duration.ofMillis(Long.getLong("benchmark.latency_ms", 20)),
+                Duration.ofMillis(Long.getLong("benchmark.jitter_ms", 10)))
+            .errors(Double.parseDouble(System.getProperty("benchmark.error_rate", "0")), 500);
+
+        System.out.printf("%d cases, CCD latency %dms + up to %dms, error rate %s%n", cases,
+            settings.latency().toMillis(), settings.jitter().toMillis(), settings.errorRate());
+        System.out.printf("%-6s %-10s %8s %10s %10s %8s %8s %8s %8s %10s %6s%n", "source", "mode", "threads",
+            "cases/s", "elapsed", "failed", "p50 ms", "p95 ms", "p99 ms", "peak heap", "GCs");
+
+        try (CcdStubServer stub = new CcdStubServer(settings)) {
+            Path caseIdFile = sources.contains("FILE") ? writeCaseIdFile(stub.references()) : null;
+            for (String source : sources) {
+                for (String mode : modes) {
+                    for (int threadCount : threads) {
+                        stub.reset(settings);
+                        Map<String, Object> properties = Map.of(
+                            "default.thread.limit", threadCount,
+                            "default.thread.mode", mode,
+                            "default.query.size", Integer.getInteger("benchmark.query_size", 100),
+                            "case-migration.elasticsearch.slices", Integer.getInteger("benchmark.slices", 1));
+                        MigrationRun run = switch (source) {
+                            case "LIST" -> MigrationHarness.migrateList(stub.getUrl(), stub.references(), properties);
+                            case "FILE" -> MigrationHarness.migrateFile(stub.getUrl(), caseIdFile, properties);
+                            default -> MigrationHarness.migrateQuery(stub.getUrl(), properties);
+                        };
+                        System.out.printf("%-6s %-10s %8d %10.1f %9.1fs %8d %8d %8d %8d %8dMB %6d%n", source, mode,
+                            threadCount, run.casesPerSecond(), run.elapsed().toMillis() / 1000.0, run.failed(),
+                            run.p50().toMillis(), run.p95().toMillis(), run.p99().toMillis(),
+                            run.peakHeapBytes() / (1024 * 1024), run.gcCount());
+                    }
+                }
+            }
+        }
+    }
+
+    private static Path writeCaseIdFile(List<String> caseIds) throws IOException {
+        Path file = Files.createTempFile("migration-benchmark", ".txt.gz");
+        file.toFile().deleteOnExit();
+        try (Writer writer = new OutputStreamWriter(new GZIPOutputStream(Files.newOutputStream(file)),
+            StandardCharsets.US_ASCII)) {
+            for (String caseId : caseIds) {
+                writer.write(caseId + "\n");
+            }
+        }
+        return file;
+    }
+
+    private static List<String> list(String property, String defaultValue) {
+        return Arrays.stream(System.getProperty(property, defaultValue).split(","))
+            .map(String::trim)
+            .filter(value -> !value.isEmpty())
+            .toList();
+    }
+}
@@ -0,0 +1,266 @@
+package uk.gov.hmcts.reform.migration.stub;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * An in-process stand-in for the CCD data store, its ES search, IDAM and S2S, all on one port.
+ *
+ * <p>Search only honours {@code size}, {@code from}, {@code search_after}, the reference sort and {@code range}
+ * clauses on {@code reference.keyword}, every other clause matches every case. Every case is a draft created on
+ * 1 January 2024 with no data, which is enough for the trigger-only and TTL migrations.
+ */
+public class CcdStubServer implements AutoCloseable {
+
+    public static final long FIRST_REFERENCE = 1_600_000_000_000_000L;
+
+    private static final String REFERENCE_FIELD = "reference.keyword";
+    private static final Pattern CASE_PATH = Pattern.compile(
+        "/caseworkers/[^/]+/jurisdictions/[^/]+/case-types/[^/]+/cases/(\\d+)/(events|event-triggers/([^/]+)/token)");
+
+    public enum Endpoint {
+        IDAM_TOKEN, IDAM_DETAILS, S2S_LEASE, SEARCH, START_EVENT, SUBMIT_EVENT
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<Endpoint, LongAdder> requests = new EnumMap<>(Endpoint.class);
+    private final Set<Long> submitted = ConcurrentHashMap.newKeySet();
+    private volatile StubSettings settings;
+
+    public CcdStubServer(StubSettings settings) {
+        this.settings = settings;
+        for (Endpoint endpoint : Endpoint.values()) {
+            requests.put(endpoint, new LongAdder());
+        }
+        try {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        server.createContext("/", this::handle);
+        // every call sleeps for the configured latency, so each needs a thread of its own
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public String getUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    /**
+     * Changes how the stub behaves and forgets every call made so far.
+     */
+    public void reset(StubSettings settings) {
+        this.settings = settings;
+        requests.values().forEach(LongAdder::reset);
+        submitted.clear();
+    }
+
+    public long requests(Endpoint endpoint) {
+        return requests.get(endpoint).sum();
+    }
+
+    public Set<Long> getSubmittedCases() {
+        return Set.copyOf(submitted);
+    }
+
+    public List<String> references() {
+        List<String> references = new ArrayList<>(settings.cases());
+        for (int i = 0; i < settings.cases(); i++) {
+            references.add(String.valueOf(FIRST_REFERENCE + i));
+        }
+        return references;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            byte[] body = exchange.getRequestBody().readAllBytes();
+            String method = exchange.getRequestMethod();
+            String path = exchange.getRequestURI().getPath();
+            Matcher casePath = CASE_PATH.matcher(path);
+
+            if ("POST".equals(method) && "/o/token".equals(path)) {
+                count(Endpoint.IDAM_TOKEN);
+                respond(exchange, 200, Map.of(
+                    "access_token", jwt(Instant.now().plusSeconds(8 * 3600)),
+                    "token_type", "Bearer",
+                    "expires_in", 8 * 3600));
+            } else if ("GET".equals(method) && "/details".equals(path)) {
+                count(Endpoint.IDAM_DETAILS);
+                respond(exchange, 200, Map.of(
+                    "id", "system-user",
+                    "email", "adoption.systemuser@mailinator.com",
+                    "forename", "System",
+                    "surname", "User",
+                    "roles", List.of("caseworker-adoption-systemupdate")));
+            } else if ("POST".equals(method) && "/lease".equals(path)) {
+                count(Endpoint.S2S_LEASE);
+                respond(exchange, 200, jwt(Instant.now().plusSeconds(4 * 3600)));
+            } else if ("POST".equals(method) && "/searchCases".equals(path)) {
+                count(Endpoint.SEARCH);
+                pause();
+                respond(exchange, 200, search(objectMapper.readTree(body)));
+            } else if (casePath.matches()) {
+                long caseId = Long.parseLong(casePath.group(1));
+                boolean start = "GET".equals(method) && casePath.group(3) != null;
+                boolean submit = "POST".equals(method) && casePath.group(3) == null;
+                if (!start && !submit) {
+                    respond(exchange, 405, Map.of("message", method + " " + path));
+                    return;
+                }
+                count(start ? Endpoint.START_EVENT : Endpoint.SUBMIT_EVENT);
+                pause();
+                if (!exists(caseId)) {
+                    respond(exchange, 404, Map.of("message", "Case " + caseId + " not found"));
+                } else if (shouldFail(caseId, start)) {
+                    respond(exchange, settings.errorStatus(), Map.of("message", "Injected failure"));
+                } else if (start) {
+                    respond(exchange, 200, Map.of(
+                        "case_details", caseDetails(caseId),
+                        "event_id", casePath.group(3),
+                        "token", "event-token-" + caseId));
+                } else {
+                    submitted.add(caseId);
+                    respond(exchange, 201, caseDetails(caseId));
+                }
+            } else {
+                respond(exchange, 404, Map.of("message", "No stub for " + method + " " + path));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Map<String, Object> search(JsonNode request) {
+        StubSettings current = settings;
+        long lowest = FIRST_REFERENCE;
+        long highest = FIRST_REFERENCE + current.cases();
+        for (JsonNode range : request.path("query").findValues("range")) {
+            JsonNode bounds = range.path(REFERENCE_FIELD);
+            if (bounds.has("gte")) {
+                lowest = Math.max(lowest, bounds.get("gte").asLong());
+            }
+            if (bounds.has("gt")) {
+                lowest = Math.max(lowest, bounds.get("gt").asLong() + 1);
+            }
+            if (bounds.has("lt")) {
+                highest = Math.min(highest, bounds.get("lt").asLong());
+            }
+            if (bounds.has("lte")) {
+                highest = Math.min(highest, bounds.get("lte").asLong() + 1);
+            }
+        }
+        long total = Math.max(highest - lowest, 0);
+
+        boolean descending = "desc".equalsIgnoreCase(request.path("sort").path(0).path(REFERENCE_FIELD)
+            .path("order").asText("asc"));
+        JsonNode after = request.path("search_after");
+        if (!after.isEmpty()) {
+            long afterReference = after.get(0).asLong();
+            if (descending) {
+                highest = Math.min(highest, afterReference);
+            } else {
+                lowest = Math.max(lowest, afterReference + 1);
+            }
+        }
+
+        int size = request.path("size").asInt(10);
+        long from = request.path("from").asLong(0);
+        List<Map<String, Object>> cases = new ArrayList<>(size);
+        for (long i = from; i < from + size && i < highest - lowest; i++) {
+            cases.add(caseDetails(descending ? highest - 1 - i : lowest + i));
+        }
+        return Map.of("total", total, "cases", cases);
+    }
+
+    private Map<String, Object> caseDetails(long caseId) {
+        Map<String, Object> caseDetails = new LinkedHashMap<>();
+        caseDetails.put("id", caseId);
+        caseDetails.put("jurisdiction", "ADOPTION");
+        caseDetails.put("case_type_id", "A58");
+        caseDetails.put("state", "Draft");
+        caseDetails.put("created_date", "2024-01-01T00:00:00");
+        caseDetails.put("last_modified", "2024-02-01T00:00:00");
+        caseDetails.put("case_data", Map.of());
+        return caseDetails;
+    }
+
+    private boolean exists(long caseId) {
+        return caseId >= FIRST_REFERENCE && caseId < FIRST_REFERENCE + settings.cases();
+    }
+
+    private boolean shouldFail(long caseId, boolean start) {
+        StubSettings current = settings;
+        if (start && current.failingCases().contains(caseId)) {
+            return true;
+        }
+        return current.errorRate() > 0 && ThreadLocalRandom.current().nextDouble() < current.errorRate();
+    }
+
+    private void pause() throws InterruptedException {
+        StubSettings current = settings;
+        long millis = current.latency().toMillis();
+        if (!current.jitter().isZero()) {
+            millis += ThreadLocalRandom.current().nextLong(current.jitter().toMillis() + 1);
+        }
+        if (millis > 0) {
+            Thread.sleep(millis);
+        }
+    }
+
+    private void count(Endpoint endpoint) {
+        requests.get(endpoint).increment();
+    }
+
+    private void respond(HttpExchange exchange, int status, Object body) throws IOException {
+        boolean text = body instanceof String;
+        byte[] bytes = text
+            ? ((String) body).getBytes(StandardCharsets.UTF_8)
+            : objectMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", text ? "text/plain" : "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String jwt(Instant expiry) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String header = encoder.encodeToString("{\"alg\":\"none\"}".getBytes(StandardCharsets.UTF_8));
+        String claims = encoder.encodeToString(("{\"sub\":\"stub\",\"exp\":" + expiry.getEpochSecond() + "}")
+            .getBytes(StandardCharsets.UTF_8));
+        return header + "." + claims + ".signature";
+    }
+}
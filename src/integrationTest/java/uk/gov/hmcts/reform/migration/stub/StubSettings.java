@@ -0,0 +1,38 @@
+package uk.gov.hmcts.reform.migration.stub;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * How the stub behaves: how many cases ES holds, how slow CCD is and which calls fail.
+ *
+ * @param cases number of cases, with references counting up from {@link CcdStubServer#FIRST_REFERENCE}
+ * @param latency added to every search, start-event and submit-event call
+ * @param jitter up to this much more is added at random on top of the latency
+ * @param errorRate fraction of start-event and submit-event calls that fail with {@code errorStatus}
+ * @param errorStatus the status failed calls return
+ * @param failingCases cases whose start-event always fails with {@code errorStatus}
+ */
+public record StubSettings(int cases,
+                           Duration latency,
+                           Duration jitter,
+                           double errorRate,
+                           int errorStatus,
+                           Set<Long> failingCases) {
+
+    public static StubSettings withCases(int cases) {
+        return new StubSettings(cases, Duration.ZERO, Duration.ZERO, 0, 500, Set.of());
+    }
+
+    public StubSettings latency(Duration latency, Duration jitter) {
+        return new StubSettings(cases, latency, jitter, errorRate, errorStatus, failingCases);
+    }
+
+    public StubSettings errors(double errorRate, int errorStatus) {
+        return new StubSettings(cases, latency, jitter, errorRate, errorStatus, failingCases);
+    }
+
+    public StubSettings failing(Set<Long> failingCases) {
+        return new StubSettings(cases, latency, jitter, errorRate, errorStatus, failingCases);
+    }
+}
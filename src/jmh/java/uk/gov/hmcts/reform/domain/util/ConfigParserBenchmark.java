@@ -0,0 +1,49 @@
+package uk.gov.hmcts.reform.domain.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing {@code case-migration.case_id_list.mapping} with a few migrations sharing large case id lists.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ConfigParserBenchmark {
+
+    private static final int MIGRATIONS = 4;
+
+    @Param({"1000", "100000"})
+    public int caseIds;
+
+    private String config;
+
+    @Setup
+    public void setUp() {
+        StringJoiner entries = new StringJoiner(";");
+        for (int migration = 0; migration < MIGRATIONS; migration++) {
+            StringJoiner ids = new StringJoiner("|");
+            for (int i = migration; i < caseIds; i += MIGRATIONS) {
+                ids.add(String.valueOf(1_700_000_000_000_000L + i));
+            }
+            entries.add("ADOP-" + migration + "=>" + ids);
+        }
+        config = entries.toString();
+    }
+
+    @Benchmark
+    public Map<String, List<String>> parseConfig() {
+        return ConfigParser.parseConfig(config);
+    }
+}
@@ -0,0 +1,67 @@
+package uk.gov.hmcts.reform.migration.query;
+
+import net.minidev.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the ES request for a page, which happens once per page per slice.
+ *
+ * <p>The query is a slice of a state query, also excluding a list of references so larger lists show the cost of
+ * serialising big {@code terms} clauses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EsQueryBenchmark {
+
+    private static final Sort SORT = Sort.builder()
+        .clauses(List.of(SortQuery.of(ReferenceSlices.REFERENCE_FIELD, SortOrder.ASC)))
+        .build();
+
+    @Param({"0", "1000"})
+    public int excludedReferences;
+
+    private BooleanQuery query;
+
+    @Setup
+    public void setUp() {
+        List<String> references = new ArrayList<>(excludedReferences);
+        for (int i = 0; i < excludedReferences; i++) {
+            references.add(String.valueOf(1_700_000_000_000_000L + i));
+        }
+        BooleanQuery.BooleanQueryBuilder builder = BooleanQuery.builder()
+            .must(Must.of(MatchQuery.of("state", "Draft")));
+        if (!references.isEmpty()) {
+            builder.mustNot(MustNot.of(TermsQuery.of(ReferenceSlices.REFERENCE_FIELD, references)));
+        }
+        query = (BooleanQuery) ReferenceSlices.slice(builder.build(), 1_700_000_000_000_000L,
+            1_799_999_999_999_999L, 4).get(1);
+    }
+
+    @Benchmark
+    public Map<String, Object> toMap() {
+        return query.toMap();
+    }
+
+    @Benchmark
+    public JSONObject toQueryContext() {
+        return query.toQueryContext(100, "1725000000000000", SORT);
+    }
+
+    @Benchmark
+    public String toQueryContextJson() {
+        return query.toQueryContext(100, "1725000000000000", SORT, List.of("data.court")).toString();
+    }
+}
@@ -0,0 +1,71 @@
+package uk.gov.hmcts.reform.migration.service;
+
+import uk.gov.hmcts.reform.ccd.client.model.CaseDetails;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Case payloads shaped like what CCD hands back, parsed into plain maps and lists as Feign would.
+ */
+public final class CasePayloads {
+
+    public enum Size {
+        // a draft with little filled in
+        SMALL(1, 5),
+        // a submitted application
+        TYPICAL(3, 60),
+        // a case where the applicant has retried payment many times
+        LARGE(500, 60);
+
+        private final int payments;
+        private final int fields;
+
+        Size(int payments, int fields) {
+            this.payments = payments;
+            this.fields = fields;
+        }
+    }
+
+    private CasePayloads() {
+    }
+
+    public static CaseDetails caseDetails(Size size, String state) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("court", Map.of(
+            "code", "344",
+            "name", "Family Court sitting at Swansea",
+            "email", "FamilyPublicLaw+sa@gmail.com"));
+        data.put("dateSubmitted", "2024-01-15");
+        data.put("applicationPayments", payments(size.payments));
+        data.put("TTL", Map.of("Suspended", "No", "SystemTTL", "2025-12-31"));
+        for (int i = 0; i < size.fields; i++) {
+            data.put("field" + i, i % 3 == 0 ? Map.of("line1", "Line " + i, "postcode", "SW1A 1AA") : "value" + i);
+        }
+
+        return CaseDetails.builder()
+            .id(1_700_000_000_000_000L)
+            .jurisdiction("ADOPTION")
+            .caseTypeId("A58")
+            .state(state)
+            .createdDate(LocalDateTime.of(2024, 1, 1, 0, 0))
+            .lastModified(LocalDateTime.of(2024, 2, 1, 0, 0))
+            .data(data)
+            .build();
+    }
+
+    private static List<Map<String, Object>> payments(int count) {
+        List<Map<String, Object>> payments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            payments.add(Map.of("id", "payment-" + i, "value", Map.of(
+                "created", String.format("2024-%02d-%02dT09:30:00.000Z", i % 12 + 1, i % 28 + 1),
+                "amount", "35000",
+                "reference", "RC-1704-" + i,
+                "status", "success")));
+        }
+        return payments;
+    }
+}
@@ -0,0 +1,70 @@
+package uk.gov.hmcts.reform.migration.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import uk.gov.hmcts.reform.ccd.client.model.CaseDetails;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-case cost of each migration function, as run by a worker between start-event and submit-event.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DataMigrationBenchmark {
+
+    @Param({"SMALL", "TYPICAL", "LARGE"})
+    public CasePayloads.Size size;
+
+    private DataMigrationServiceImpl service;
+    private CaseDetails draft;
+    private CaseDetails awaitingPayment;
+    private CaseDetails submitted;
+
+    @Setup
+    public void setUp() {
+        service = new DataMigrationServiceImpl(new ObjectMapper());
+        draft = CasePayloads.caseDetails(size, "Draft");
+        awaitingPayment = CasePayloads.caseDetails(size, "AwaitingPayment");
+        submitted = CasePayloads.caseDetails(size, "Submitted");
+    }
+
+    @Benchmark
+    public Map<String, Object> triggerOnly() {
+        return service.migrate(draft, "ADOP-log");
+    }
+
+    @Benchmark
+    public Map<String, Object> ttlDraft() {
+        return service.migrate(draft, "ADOP-2555");
+    }
+
+    @Benchmark
+    public Map<String, Object> ttlAwaitingPayment() {
+        return service.migrate(awaitingPayment, "ADOP-2555");
+    }
+
+    @Benchmark
+    public Map<String, Object> ttlSubmitted() {
+        return service.migrate(submitted, "ADOP-2555");
+    }
+
+    @Benchmark
+    public Map<String, Object> suspendTtl() {
+        return service.migrate(draft, "ADOP-2555-suspend");
+    }
+
+    @Benchmark
+    public Map<String, Object> removeTtl() {
+        return service.triggerRemoveMigrationTtl(draft);
+    }
+}
@@ -0,0 +1,48 @@
+package uk.gov.hmcts.reform.migration.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import uk.gov.hmcts.reform.domain.model.DfjAreaCourtMapping;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Looking up the DFJ area of a court, for the first and the last court in the mapping file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DfjAreaLookUpBenchmark {
+
+    @Param({"100", "386"})
+    public String courtCode;
+
+    private DfjAreaLookUpService service;
+
+    @Setup
+    public void setUp() {
+        service = new DfjAreaLookUpService(Jackson2ObjectMapperBuilder.json().build());
+        // a mapping that failed to load would only time the miss path
+        if (service.findDfjArea(courtCode).isEmpty()) {
+            throw new IllegalStateException("No DFJ area for court " + courtCode + ", the mapping did not load");
+        }
+    }
+
+    @Benchmark
+    public DfjAreaCourtMapping getDfjArea() {
+        return service.getDfjArea(courtCode);
+    }
+
+    @Benchmark
+    public Optional<DfjAreaCourtMapping> findDfjArea() {
+        return service.findDfjArea(courtCode);
+    }
+}
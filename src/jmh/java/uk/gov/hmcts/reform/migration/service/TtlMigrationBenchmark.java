@@ -0,0 +1,53 @@
+package uk.gov.hmcts.reform.migration.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import uk.gov.hmcts.reform.ccd.client.model.CaseDetails;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-case cost of the TTL transforms with one shared mapper, against building the mapper for every case as the
+ * transforms used to.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TtlMigrationBenchmark {
+
+    private DataMigrationServiceImpl sharedMapper;
+    private CaseDetails awaitingPayment;
+
+    @Setup
+    public void setUp() {
+        sharedMapper = new DataMigrationServiceImpl(new ObjectMapper());
+        awaitingPayment = CasePayloads.caseDetails(CasePayloads.Size.TYPICAL, "AwaitingPayment");
+    }
+
+    @Benchmark
+    public Map<String, Object> ttlSharedMapper() {
+        return sharedMapper.triggerTtlMigration(awaitingPayment);
+    }
+
+    @Benchmark
+    public Map<String, Object> ttlMapperPerCase() {
+        return new DataMigrationServiceImpl(new ObjectMapper()).triggerTtlMigration(awaitingPayment);
+    }
+
+    @Benchmark
+    public Map<String, Object> suspendSharedMapper() {
+        return sharedMapper.triggerSuspendMigrationTtl(awaitingPayment);
+    }
+
+    @Benchmark
+    public Map<String, Object> suspendMapperPerCase() {
+        return new DataMigrationServiceImpl(new ObjectMapper()).triggerSuspendMigrationTtl(awaitingPayment);
+    }
+}
@@ -0,0 +1,16 @@
+package uk.gov.hmcts.reform.domain.exception;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+@Getter
+public class CcdUnavailableException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public CcdUnavailableException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+}
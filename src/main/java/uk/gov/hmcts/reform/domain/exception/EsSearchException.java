@@ -0,0 +1,8 @@
+package uk.gov.hmcts.reform.domain.exception;
+
+public class EsSearchException extends RuntimeException {
+
+    public EsSearchException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -3,28 +3,71 @@ package uk.gov.hmcts.reform.migration;
 import lombok.Getter;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
 import uk.gov.hmcts.reform.ccd.client.model.CaseDetails;
 import uk.gov.hmcts.reform.domain.exception.CaseMigrationSkippedException;
+import uk.gov.hmcts.reform.domain.exception.CcdUnavailableException;
+import uk.gov.hmcts.reform.domain.exception.EsSearchException;
+import uk.gov.hmcts.reform.migration.auth.UserTokenProvider;
+import uk.gov.hmcts.reform.migration.ccd.CcdFailure;
 import uk.gov.hmcts.reform.migration.ccd.CoreCaseDataService;
+import uk.gov.hmcts.reform.migration.checkpoint.Checkpoint;
+import uk.gov.hmcts.reform.migration.checkpoint.CheckpointStore;
+import uk.gov.hmcts.reform.migration.checkpoint.PageTracker;
+import uk.gov.hmcts.reform.migration.metrics.MigrationMetrics;
+import uk.gov.hmcts.reform.migration.query.AcceptanceQueries;
 import uk.gov.hmcts.reform.migration.query.EsQuery;
+import uk.gov.hmcts.reform.migration.query.QueryFingerprint;
+import uk.gov.hmcts.reform.migration.query.ReferenceSlices;
 import uk.gov.hmcts.reform.migration.repository.ElasticSearchRepository;
-import uk.gov.hmcts.reform.migration.repository.IdamRepository;
-
+import uk.gov.hmcts.reform.migration.repository.EsPageReader;
+import uk.gov.hmcts.reform.migration.results.CaseIdFileReader;
+import uk.gov.hmcts.reform.migration.results.CaseIdSet;
+import uk.gov.hmcts.reform.migration.results.CaseIdSink;
+import uk.gov.hmcts.reform.migration.results.LatencyHistogram;
+import uk.gov.hmcts.reform.migration.results.ResultFiles;
+import uk.gov.hmcts.reform.migration.results.ResultStore;
+import uk.gov.hmcts.reform.migration.retry.RetryPolicy;
+import uk.gov.hmcts.reform.migration.throttling.CircuitBreaker;
+import uk.gov.hmcts.reform.migration.throttling.ConcurrencyLimiter;
+import uk.gov.hmcts.reform.migration.throttling.RateLimits;
+import uk.gov.hmcts.reform.migration.throttling.TokenBucketRateLimiter;
+
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import static java.math.RoundingMode.UP;
 import static java.time.LocalDateTime.now;
 import static java.util.Objects.requireNonNull;
-import static java.util.concurrent.TimeUnit.SECONDS;
-import static org.springframework.util.ObjectUtils.isEmpty;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static uk.gov.hmcts.reform.migration.repository.ElasticSearchRepository.SORT_BY_REF;
+import static uk.gov.hmcts.reform.migration.repository.ElasticSearchRepository.SORT_BY_REF_ASC;
 
 @Slf4j
 @Component
@@ -34,122 +77,462 @@ public class CaseMigrationProcessor {
     public static final String EVENT_DESCRIPTION = "Migrate Case";
     public static final String LOG_STRING = "-----------------------------------------";
 
+    // poison pill, one is queued per consumer once loading has finished and every case has settled
+    private static final Long END_OF_QUEUE = Long.MIN_VALUE;
+    private static final int QUEUE_PAGES = 2;
+    private static final int LOGGED_SAMPLE_SIZE = 20;
+
     private final CoreCaseDataService coreCaseDataService;
     private final ElasticSearchRepository elasticSearchRepository;
-    private final IdamRepository idamRepository;
+    private final UserTokenProvider userTokenProvider;
+    private final ConcurrencyLimiter concurrencyLimiter;
+    private final CircuitBreaker circuitBreaker;
+    private final TokenBucketRateLimiter caseRateLimiter;
+    private final CheckpointStore checkpointStore;
+    private final ResultStore resultStore;
+    private final MigrationMetrics metrics;
+    private final RetryPolicy retryPolicy;
     private final int defaultQuerySize;
+    private final int prefetchDepth;
+    private final int slices;
     private final int defaultThreadLimit;
-    private final int defaultThreadDelay;
+    private final ExecutorMode executorMode;
     private final int timeout;
     private final String migrationId;
     private final String caseType;
     private final String jurisdiction;
 
-    private final ForkJoinPool threadPool;
+    private final ExecutorService threadPool;
+    private final Semaphore inFlight;
+    private final int consumers;
+    private CountDownLatch consumersFinished;
 
     @Getter
-    private final List<Long> migratedCases = new ArrayList<>();
+    private final CaseIdSink migratedCases = new CaseIdSink();
     @Getter
-    private final List<Long> skippedCases = new ArrayList<>();
+    private final CaseIdSink skippedCases = new CaseIdSink();
     @Getter
-    private final List<Long> failedCases = new ArrayList<>();
-
-    private final ConcurrentLinkedQueue<Long> casesToMigrate = new ConcurrentLinkedQueue<>();
-
-    private boolean finishedLoading = false;
+    private final CaseIdSink failedCases = new CaseIdSink();
+    @Getter
+    private final LatencyHistogram updateLatency = new LatencyHistogram();
+
+    private final BlockingQueue<Long> casesToMigrate;
+    private final AtomicInteger activeWorkers = new AtomicInteger();
+    // every case queued this run, ES can return a case twice if it changes mid scan and lists can repeat ids
+    private final CaseIdSet queuedCases = new CaseIdSet();
+    private final AtomicInteger duplicates = new AtomicInteger();
+
+    // failed cases wait here until their backoff is up, then go back on the queue behind whatever was loaded since
+    private final DelayQueue<RetryCase> retries = new DelayQueue<>();
+    private final Map<Long, Attempts> attempts = new ConcurrentHashMap<>();
+    // cases queued or waiting to be retried, the run is over once loading has finished and this is back to zero
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicBoolean queueClosed = new AtomicBoolean();
+    private final AtomicInteger retried = new AtomicInteger();
+    private volatile boolean loadingFinished;
+    // set when the run stops short of some cases, so its checkpoint is kept for the next run to resume from
+    private volatile boolean stoppedEarly;
+
+    private volatile Checkpoint checkpoint = Checkpoint.DISABLED;
+    private volatile PageTracker pageTracker = new PageTracker(Checkpoint.DISABLED);
+    private volatile ResultFiles resultFiles = ResultFiles.DISABLED;
+    private volatile List<String> prefetchFields = List.of();
 
     private LocalDateTime startTime = now();
 
-    private boolean retryFailures;
-
     //@Autowired
     public CaseMigrationProcessor(CoreCaseDataService coreCaseDataService,
                                   ElasticSearchRepository elasticSearchRepository,
-                                  IdamRepository idamRepository,
-                                  @Value("${default.query.size}") int defaultQuerySize,
-                                  @Value("${default.thread.limit:8}") int defaultThreadLimit,
-                                  @Value("${default.thread.delay:0}") int defaultThreadDelay,
-                                  @Value("${case-migration.processing.id}") String migrationId,
-                                  @Value("${migration.jurisdiction}") String jurisdiction,
-                                  @Value("${migration.caseType}") String caseType,
-                                  @Value("${case-migration.retry_failures}") boolean retryFailures,
-                                  @Value("${case-migration.timeout:7200}") int timeout) {
+                                  UserTokenProvider userTokenProvider,
+                                  ConcurrencyLimiter concurrencyLimiter,
+                                  CircuitBreaker circuitBreaker,
+                                  RateLimits rateLimits,
+                                  CheckpointStore checkpointStore,
+                                  ResultStore resultStore,
+                                  MigrationMetrics metrics,
+                                  @Qualifier("caseRetryPolicy") RetryPolicy retryPolicy,
+                                  MigrationSettings settings) {
         this.coreCaseDataService = coreCaseDataService;
         this.elasticSearchRepository = elasticSearchRepository;
-        this.idamRepository = idamRepository;
-        this.defaultQuerySize = defaultQuerySize;
-        this.defaultThreadLimit = defaultThreadLimit;
-        this.defaultThreadDelay = defaultThreadDelay * 1000;
-        this.migrationId = migrationId;
-        this.jurisdiction = jurisdiction;
-        this.caseType = caseType;
-        this.retryFailures = retryFailures;
-        this.threadPool = new ForkJoinPool(defaultThreadLimit);
-        this.timeout = timeout;
+        this.userTokenProvider = userTokenProvider;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.circuitBreaker = circuitBreaker;
+        this.caseRateLimiter = rateLimits.getCases();
+        this.checkpointStore = checkpointStore;
+        this.resultStore = resultStore;
+        this.metrics = metrics;
+        this.retryPolicy = retryPolicy;
+        this.defaultQuerySize = settings.getQuerySize();
+        this.prefetchDepth = settings.getPrefetchDepth();
+        this.slices = settings.getSlices();
+        this.defaultThreadLimit = settings.getThreadLimit();
+        this.migrationId = settings.getMigrationId();
+        this.jurisdiction = settings.getJurisdiction();
+        this.caseType = settings.getCaseType();
+        this.executorMode = settings.getExecutorMode();
+        if (executorMode == ExecutorMode.VIRTUAL) {
+            // a single dispatcher feeds virtual threads, the semaphore caps how many are in flight
+            this.threadPool = Executors.newVirtualThreadPerTaskExecutor();
+            this.inFlight = new Semaphore(defaultThreadLimit);
+            this.consumers = 1;
+        } else {
+            this.threadPool = new ForkJoinPool(defaultThreadLimit);
+            this.inFlight = null;
+            this.consumers = defaultThreadLimit;
+        }
+        this.casesToMigrate = new LinkedBlockingQueue<>(Math.max(defaultQuerySize, defaultThreadLimit) * QUEUE_PAGES);
+        this.timeout = settings.getTimeout();
+
+        metrics.gauge("migration.queue.depth", "Cases waiting to be migrated", casesToMigrate, BlockingQueue::size);
+        metrics.gauge("migration.workers.active", "Cases being migrated right now", activeWorkers,
+            AtomicInteger::get);
+        metrics.gauge("migration.retries.waiting", "Failed cases waiting to be retried", retries, DelayQueue::size);
 
-        setupProcessor(true);
+        setupProcessor();
     }
 
-    public void setupProcessor(boolean firstTry) {
-        log.info("Setting up migration tool, timeout: {}s, thread delay: {}s, num threads: {}",
-            this.timeout, this.defaultThreadDelay, this.defaultThreadLimit);
+    public void setupProcessor() {
+        log.info("Setting up migration tool, timeout: {}s, rate limit: {}/s, num threads: {}, mode: {}",
+            this.timeout, caseRateLimiter.isUnlimited() ? "none" : caseRateLimiter.getPermitsPerSecond(),
+            this.defaultThreadLimit, this.executorMode);
 
         this.startTime = now();
         this.getFailedCases().clear();
         this.getMigratedCases().clear();
         this.getSkippedCases().clear();
+        this.updateLatency.reset();
+        this.casesToMigrate.clear();
+        this.queuedCases.clear();
+        this.duplicates.set(0);
+        this.retries.clear();
+        this.attempts.clear();
+        this.outstanding.set(0);
+        this.retried.set(0);
+        this.queueClosed.set(false);
+        this.loadingFinished = false;
+        this.stoppedEarly = false;
 
-        this.finishedLoading = false;
-
-        String userToken =  idamRepository.generateUserToken();
         // Setup consumers
-        for (int i = 0; i < defaultThreadLimit; i++) {
-            threadPool.execute(() -> worker(caseType, jurisdiction, userToken));
+        CountDownLatch finished = new CountDownLatch(consumers);
+        this.consumersFinished = finished;
+        for (int i = 0; i < consumers; i++) {
+            threadPool.execute(() -> {
+                try {
+                    if (executorMode == ExecutorMode.VIRTUAL) {
+                        dispatcher(caseType, jurisdiction);
+                    } else {
+                        worker(caseType, jurisdiction);
+                    }
+                } finally {
+                    finished.countDown();
+                }
+            });
         }
+        Thread.ofVirtual().name("case-retries").start(this::requeueRetries);
+    }
 
-        if (!firstTry) {
-            this.retryFailures = false;
+    private void worker(String caseType, String jurisdiction) {
+        while (true) {
+            Long caseId;
+            try {
+                awaitCcd();
+                // blocks until a case is available, wakes as soon as one is queued
+                caseId = casesToMigrate.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (END_OF_QUEUE.equals(caseId)) {
+                return;
+            }
+            migrateCase(caseId, caseType, jurisdiction);
         }
     }
 
-
-    @SneakyThrows
-    private void worker(String caseType, String jurisdiction, String userToken) {
-        while (!finishedLoading || !casesToMigrate.isEmpty()) {
-            // check for content
-            Long caseId = casesToMigrate.poll();
-            if (!isEmpty(caseId)) {
-                // we've removed our caseId from the queue - now need to process it
-                try {
-                    coreCaseDataService.update(userToken,
-                        EVENT_ID,
-                        EVENT_SUMMARY,
-                        EVENT_DESCRIPTION,
-                        caseType,
-                        CaseDetails.builder()
-                            .id(caseId)
-                            .jurisdiction(jurisdiction)
-                            .build(),
-                        this.migrationId
-                    );
-                    log.info("Completed migrating case {}", caseId);
-                    migratedCases.add(caseId);
-
-                    // artificially slow down the migration tool if needed
-                    if (defaultThreadDelay > 0) {
-                        Thread.sleep(defaultThreadDelay);
+    private void dispatcher(String caseType, String jurisdiction) {
+        try {
+            while (true) {
+                awaitCcd();
+                Long caseId = casesToMigrate.take();
+                if (END_OF_QUEUE.equals(caseId)) {
+                    // every permit back means every case handed out has finished
+                    inFlight.acquire(defaultThreadLimit);
+                    inFlight.release(defaultThreadLimit);
+                    return;
+                }
+                inFlight.acquire();
+                threadPool.execute(() -> {
+                    try {
+                        migrateCase(caseId, caseType, jurisdiction);
+                    } finally {
+                        inFlight.release();
                     }
-                } catch (CaseMigrationSkippedException e) {
-                    log.info("Skipped migrating case {}, {}", caseId, e.getMessage());
-                    skippedCases.add(caseId);
-                } catch (Exception e) {
-                    log.error("Failed migrating case {}", caseId, e);
-                    failedCases.add(caseId);
+                });
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Holds off taking more cases while the circuit breaker has stopped calls to CCD, so they stay queued rather
+     * than being failed one after another.
+     */
+    private void awaitCcd() throws InterruptedException {
+        circuitBreaker.awaitCallPermitted(Duration.ofMillis(Math.max(remainingMillis(), 0)));
+    }
+
+    private void migrateCase(Long caseId, String caseType, String jurisdiction) {
+        activeWorkers.incrementAndGet();
+        long started = System.nanoTime();
+        // every case taken off the queue either settles here or goes back for another go, never both
+        boolean requeued = false;
+        try {
+            updateCase(caseId, caseType, jurisdiction);
+            log.info("Completed migrating case {}", caseId);
+            recordMigrated(caseId);
+        } catch (CaseMigrationSkippedException e) {
+            log.info("Skipped migrating case {}, {}", caseId, e.getMessage());
+            recordSkipped(caseId);
+        } catch (CcdUnavailableException e) {
+            // CCD was never called, so this is not an attempt at the case, it goes back on the queue once CCD is
+            log.debug("Holding back case {}, {}", caseId, e.getMessage());
+            retries.add(new RetryCase(caseId, System.nanoTime() + e.getRetryAfter().toNanos()));
+            requeued = true;
+        } catch (Exception e) {
+            requeued = retryLater(caseId, e, started);
+            if (!requeued) {
+                log.error("Failed migrating case {}", caseId, e);
+                recordFailed(caseId);
+            }
+        } catch (Throwable e) {
+            // e.g. an AssertionError from a transform, which would otherwise leave the run waiting on this case
+            log.error("Failed migrating case {}", caseId, e);
+            recordFailed(caseId);
+        } finally {
+            activeWorkers.decrementAndGet();
+            if (!requeued) {
+                settled(caseId);
+            }
+        }
+    }
+
+    /**
+     * Puts a failed case aside to be tried again once its backoff is up, if the retry policy allows another attempt
+     * and it would be made before the migration deadline.
+     */
+    private boolean retryLater(Long caseId, Exception failure, long started) {
+        Attempts tried = attempts.merge(caseId, new Attempts(1, started),
+            (earlier, latest) -> new Attempts(earlier.count() + 1, earlier.firstStarted()));
+        Optional<Duration> delay = retryPolicy.retryAfter(failure, tried.count(),
+            Duration.ofNanos(System.nanoTime() - tried.firstStarted()));
+        if (delay.isEmpty() || delay.get().toMillis() >= remainingMillis()) {
+            return false;
+        }
+        CcdFailure ccdFailure = CcdFailure.classify(failure);
+        log.warn("Retrying case {} in {}ms, attempt {} failed with {}: {}", caseId, delay.get().toMillis(),
+            tried.count(), ccdFailure, failure.getMessage());
+        metrics.caseRetried(ccdFailure);
+        retried.incrementAndGet();
+        retries.add(new RetryCase(caseId, System.nanoTime() + delay.get().toNanos()));
+        return true;
+    }
+
+    private void requeueRetries() {
+        try {
+            while (true) {
+                RetryCase retry = retries.take();
+                if (retry.isEnd()) {
+                    return;
+                }
+                if (remainingMillis() <= 0) {
+                    log.error("Timed out after {} seconds waiting to retry case {}", timeout, retry.caseId());
+                    stoppedEarly = true;
+                    recordFailed(retry.caseId());
+                    settled(retry.caseId());
+                    continue;
                 }
-            } else {
-                // polling for 1s as no caseId polled yet
-                Thread.sleep(1000);
+                // the workers keep draining the queue, so this only waits while the loaders have filled it
+                casesToMigrate.put(retry.caseId());
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void settled(long caseId) {
+        attempts.remove(caseId);
+        // only once the outcome is recorded can the cursor move past this case
+        pageTracker.caseFinished(caseId);
+        if (outstanding.decrementAndGet() == 0 && loadingFinished) {
+            closeQueue();
+        }
+    }
+
+    private void recordMigrated(long caseId) {
+        migratedCases.add(caseId);
+        resultFiles.migrated(caseId);
+        checkpoint.migrated(caseId);
+        metrics.caseFinished(MigrationMetrics.Outcome.MIGRATED);
+    }
+
+    private void recordSkipped(long caseId) {
+        skippedCases.add(caseId);
+        resultFiles.skipped(caseId);
+        checkpoint.skipped(caseId);
+        metrics.caseFinished(MigrationMetrics.Outcome.SKIPPED);
+    }
+
+    /**
+     * Records a case the migration does not accept as skipped. It was never queued, so there is nothing to checkpoint:
+     * a resumed run just finds it among the rejected cases again.
+     */
+    private void recordRejected(long caseId) {
+        skippedCases.add(caseId);
+        resultFiles.skipped(caseId);
+        metrics.caseFinished(MigrationMetrics.Outcome.SKIPPED);
+    }
+
+    private void recordFailed(long caseId) {
+        failedCases.add(caseId);
+        resultFiles.failed(caseId);
+        checkpoint.failed(caseId);
+        metrics.caseFinished(MigrationMetrics.Outcome.FAILED);
+    }
+
+    private void updateCase(Long caseId, String caseType, String jurisdiction) throws InterruptedException {
+        // fetched per case so a token refreshed mid-run is picked up straight away, and before any permit is taken so
+        // an IDAM failure never leaves one held
+        String userToken = userTokenProvider.getToken();
+        // a call the breaker rejects never reaches CCD, so it must not use up the rate or count towards the limit
+        CircuitBreaker.Permit permit = circuitBreaker.acquire();
+        CcdFailure failure = null;
+        try {
+            // shared across workers, so skipped and failed cases count towards the ceiling too
+            caseRateLimiter.acquire();
+            concurrencyLimiter.acquire();
+            long start = System.nanoTime();
+            try {
+                coreCaseDataService.update(userToken,
+                    EVENT_ID,
+                    EVENT_SUMMARY,
+                    EVENT_DESCRIPTION,
+                    caseType,
+                    CaseDetails.builder()
+                        .id(caseId)
+                        .jurisdiction(jurisdiction)
+                        .build(),
+                    this.migrationId
+                );
+            } catch (CaseMigrationSkippedException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                failure = CcdFailure.classify(e);
+                if (failure == CcdFailure.UNAUTHORISED) {
+                    // most likely expired early, so the retry goes out with a new one
+                    userTokenProvider.invalidate(userToken);
+                }
+                throw e;
+            } finally {
+                long latency = System.nanoTime() - start;
+                updateLatency.record(latency);
+                concurrencyLimiter.release(latency, failure);
+            }
+        } finally {
+            circuitBreaker.release(permit, failure);
+        }
+    }
+
+    /**
+     * Hands a case to the workers, blocking while the queue is full so the loader never runs ahead.
+     *
+     * @return false if the migration deadline passed before there was room in the queue
+     */
+    private boolean enqueue(Long caseId) throws InterruptedException {
+        outstanding.incrementAndGet();
+        long remaining = remainingMillis();
+        if (remaining <= 0 || !casesToMigrate.offer(caseId, remaining, MILLISECONDS)) {
+            log.error("Timed out after {} seconds waiting to queue case {}", timeout, caseId);
+            outstanding.decrementAndGet();
+            stoppedEarly = true;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Whether this is the first time the run has come across a case, counting it as a duplicate if not.
+     *
+     * <p>Retries go straight back on the queue, so only fresh cases are checked here.
+     */
+    private boolean firstSighting(long caseId) {
+        if (queuedCases.add(caseId)) {
+            return true;
+        }
+        duplicates.incrementAndGet();
+        metrics.caseDuplicated();
+        log.debug("Case {} has already been queued, skipping the duplicate", caseId);
+        return false;
+    }
+
+    private boolean enqueueAll(Collection<Long> caseIds) throws InterruptedException {
+        for (Long caseId : caseIds) {
+            if (!enqueue(caseId)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void openRun() {
+        checkpoint = checkpointStore.open(migrationId);
+        pageTracker = new PageTracker(checkpoint);
+        resultFiles = resultStore.open(migrationId);
+    }
+
+    private void closeRun() {
+        if (stoppedEarly) {
+            checkpoint.close();
+        } else {
+            checkpoint.complete();
+        }
+        checkpoint = Checkpoint.DISABLED;
+        pageTracker = new PageTracker(Checkpoint.DISABLED);
+        resultFiles.close();
+        resultFiles = ResultFiles.DISABLED;
+        prefetchFields = List.of();
+    }
+
+    private void finishLoading() {
+        loadingFinished = true;
+        if (outstanding.get() == 0) {
+            closeQueue();
+        }
+    }
+
+    /**
+     * Stops the consumers and the retry mover, called by whichever of the loader or the last case to settle sees
+     * the run through. Nothing is outstanding by then, so the queue has room for the pills.
+     */
+    private void closeQueue() {
+        if (!queueClosed.compareAndSet(false, true)) {
+            return;
+        }
+        retries.add(RetryCase.end());
+        for (int i = 0; i < consumers; i++) {
+            casesToMigrate.offer(END_OF_QUEUE);
+        }
+    }
+
+    private long remainingMillis() {
+        return Duration.between(now(), startTime.plusSeconds(timeout)).toMillis();
+    }
+
+    private void awaitWorkers() throws InterruptedException {
+        boolean timedOut = !consumersFinished.await(Math.max(remainingMillis(), 0), MILLISECONDS);
+        if (timedOut) {
+            log.error("Timed out after {} seconds", timeout);
+            stoppedEarly = true;
         }
     }
 
@@ -159,12 +542,10 @@ public class CaseMigrationProcessor {
         requireNonNull(caseType);
         requireNonNull(migrationId);
 
-        String userToken =  idamRepository.generateUserToken();
-
         // Get total cases to migrate
         int total;
         try {
-            total = elasticSearchRepository.searchResultsSize(userToken, this.caseType, query);
+            total = elasticSearchRepository.searchResultsSize(userTokenProvider.getToken(), this.caseType, query);
             log.info("Found {} cases to migrate", total);
         } catch (Exception e) {
             log.error("Could not determine the number of cases to search for due to {}",
@@ -174,56 +555,54 @@ public class CaseMigrationProcessor {
             return;
         }
 
-        // Setup ESQuery provider to fill up the queue
-        int pages = paginate(total);
-        log.debug("Found {} pages", pages);
-        String searchAfter = null;
-        boolean complete = false;
-        int page = 0;
-        while (!complete) {
-            try {
-                List<CaseDetails> cases = elasticSearchRepository.search(userToken, caseType, query, defaultQuerySize,
-                    searchAfter);
-
-                if (cases.isEmpty()) {
-                    complete = true;
-                    continue;
-                }
+        openRun();
+        prefetchFields = coreCaseDataService.getPrefetchFields(migrationId);
+        if (!prefetchFields.isEmpty()) {
+            log.info("Checking cases against {} from ES before calling CCD", prefetchFields);
+        }
 
-                searchAfter = cases.get(cases.size() - 1).getId().toString();
+        EsQuery toMigrate = query;
+        Optional<EsQuery> acceptance = coreCaseDataService.getAcceptanceQuery(migrationId);
+        Optional<EsQuery> rejected = acceptance.map(accepts -> AcceptanceQueries.rejected(query, accepts));
+        if (acceptance.isPresent()) {
+            toMigrate = AcceptanceQueries.accepted(query, acceptance.get());
+        }
 
-                // add to queue
-                cases.stream()
-                    .map(CaseDetails::getId)
-                    .forEach(casesToMigrate::add);
+        // cases that failed last time may be behind the checkpointed cursor, so queue them up front
+        Set<Long> failedLastTime = checkpoint.getFailed();
+        failedLastTime.forEach(queuedCases::add);
+        if (!enqueueAll(failedLastTime)) {
+            finishRun();
+            return;
+        }
 
-                page++;
-            } catch (Exception e) {
-                log.error("Could not search for page {}", page, e);
+        // Setup ESQuery provider to fill up the queue
+        int pages = paginate(total);
+        log.debug("Found {} pages", pages);
+        String queryKey = QueryFingerprint.of(toMigrate);
+        List<EsQuery> partitions = partition(toMigrate, queryKey);
+        if (partitions.size() > 1) {
+            log.info("Scanning {} reference slices in parallel", partitions.size());
+        }
+        // closing the executor waits for every slice to be loaded, the rejected cases are counted alongside so the
+        // first update does not wait on a scan of them
+        try (ExecutorService loaders = Executors.newVirtualThreadPerTaskExecutor()) {
+            rejected.ifPresent(rejectedQuery -> loaders.submit(() -> {
+                skipRejected(rejectedQuery);
+                return null;
+            }));
+            for (int i = 0; i < partitions.size(); i++) {
+                EsQuery partition = partitions.get(i);
+                String sliceKey = sliceKey(queryKey, i, partitions.size());
+                loaders.submit(() -> {
+                    loadCases(partition, sliceKey);
+                    return null;
+                });
             }
         }
 
-        finishedLoading = true;
-
         // Finalise + wait for the queue to finish processing
-        boolean timedOut = !threadPool.awaitQuiescence(timeout, SECONDS);
-        if (timedOut) {
-            log.error("Timed out after {} seconds", timeout);
-        }
-
-        publishStats(startTime);
-
-        if (retryFailures && this.getFailedCases().size() > 0) {
-            List<String> toRetry = new ArrayList<>(this.getFailedCases()).stream()
-                .map(Object::toString)
-                .collect(Collectors.toList());
-
-            // reset migration tool, with no more retries allowed
-            this.setupProcessor(false);
-
-            // migrate the failed cases
-            this.migrateList(toRetry);
-        }
+        finishRun();
     }
 
     @SneakyThrows
@@ -237,29 +616,168 @@ public class CaseMigrationProcessor {
             log.info("Found {} cases to migrate", caseIds.size());
         }
 
+        openRun();
+
         // Add them to the queue
-        casesToMigrate.addAll(caseIds.stream().map(Long::parseLong).collect(Collectors.toList()));
-        this.finishedLoading = true;
+        for (String caseId : caseIds) {
+            long id = parseCaseId(caseId);
+            if (id <= 0) {
+                log.warn("Skipping list entry '{}' that is not a case reference", caseId);
+                continue;
+            }
+            if (checkpoint.isDone(id) || !firstSighting(id)) {
+                continue;
+            }
+            if (!enqueue(id)) {
+                break;
+            }
+        }
 
         // Wait for the threadpool to finish
-        boolean timedOut = !threadPool.awaitQuiescence(timeout, SECONDS);
-        if (timedOut) {
-            log.error("Timed out after {} seconds", timeout);
+        finishRun();
+    }
+
+    private static long parseCaseId(String caseId) {
+        try {
+            return Long.parseLong(caseId.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Migrates the cases listed in a file, reading it only as fast as the cases are queued so the list can be of any
+     * length.
+     */
+    @SneakyThrows
+    public void migrateFile(Path file) {
+        requireNonNull(file);
+        log.info("Reading cases to migrate from {}", file);
+
+        openRun();
+        try (CaseIdFileReader reader = new CaseIdFileReader(file)) {
+            long caseId;
+            while ((caseId = reader.next()) != CaseIdFileReader.END_OF_FILE) {
+                if (checkpoint.isDone(caseId) || !firstSighting(caseId)) {
+                    continue;
+                }
+                if (!enqueue(caseId)) {
+                    break;
+                }
+            }
+            log.info("Read {} cases from {}, skipped {} entries that were not case references", reader.getRead(),
+                file, reader.getInvalid());
+        } catch (IOException e) {
+            // the cases already queued are still migrated
+            log.error("Could not read the cases to migrate from {}", file, e);
+            stoppedEarly = true;
+        }
+
+        finishRun();
+    }
+
+    /**
+     * Splits the query into reference slices. A resumed run reuses the bounds the interrupted one sliced between, so
+     * each slice covers the same references as the cursor saved for it, even if cases have been created since.
+     */
+    private List<EsQuery> partition(EsQuery query, String queryKey) {
+        if (slices <= 1) {
+            return List.of(query);
+        }
+        Optional<Checkpoint.Bounds> saved = checkpoint.getBounds(queryKey);
+        if (saved.isPresent()) {
+            log.info("Slicing between the references {} and {} saved by the interrupted run", saved.get().lowest(),
+                saved.get().highest());
+            return ReferenceSlices.slice(query, saved.get().lowest(), saved.get().highest(), slices);
+        }
+        String userToken = userTokenProvider.getToken();
+        Optional<Long> lowest;
+        Optional<Long> highest;
+        try {
+            lowest = elasticSearchRepository.findReference(userToken, caseType, query, SORT_BY_REF_ASC);
+            highest = elasticSearchRepository.findReference(userToken, caseType, query, SORT_BY_REF);
+        } catch (RuntimeException e) {
+            log.error("Could not find the case reference bounds, scanning as a single slice", e);
+            return List.of(query);
+        }
+        if (lowest.isEmpty() || highest.isEmpty()) {
+            return List.of(query);
         }
+        checkpoint.bounds(queryKey, lowest.get(), highest.get());
+        return ReferenceSlices.slice(query, lowest.get(), highest.get(), slices);
+    }
+
+    // the slice count is part of the key, so a cursor is never applied to a slice covering different references
+    private static String sliceKey(String queryKey, int slice, int count) {
+        return queryKey + "-" + slice + "of" + count;
+    }
 
+    private void finishRun() throws InterruptedException {
+        finishLoading();
+        awaitWorkers();
         publishStats(startTime);
+        closeRun();
+    }
 
-        if (retryFailures && this.getFailedCases().size() > 0) {
-            List<String> toRetry = new ArrayList<>(this.getFailedCases()).stream()
-                .map(Object::toString)
-                .collect(Collectors.toList());
+    private void loadCases(EsQuery query, String sliceKey) throws InterruptedException {
+        PageTracker.Slice slice = pageTracker.slice(sliceKey);
+        String resumeAfter = checkpoint.getCursor(sliceKey).orElse(null);
+        if (resumeAfter != null) {
+            log.info("Resuming slice {} after case {}", sliceKey, resumeAfter);
+        }
 
-            // reset migration tool, with no more retries allowed
-            this.setupProcessor(false);
+        try (EsPageReader reader = new EsPageReader(elasticSearchRepository, userTokenProvider::getToken, caseType,
+            query, defaultQuerySize, prefetchFields, resumeAfter, prefetchDepth)) {
+            // the reader fetches the following pages while this one is queued
+            List<CaseDetails> cases = reader.nextPage();
+            while (!cases.isEmpty()) {
+                List<Long> caseIds = new ArrayList<>(cases.size());
+                for (CaseDetails caseDetails : cases) {
+                    // earlier failures were queued up front, so only pick up cases the checkpoint knows nothing about
+                    long caseId = caseDetails.getId();
+                    if (checkpoint.isDone(caseId) || checkpoint.isFailed(caseId) || !firstSighting(caseId)) {
+                        continue;
+                    }
+                    if (!prefetchFields.isEmpty() && !coreCaseDataService.acceptsPrefetched(caseDetails)) {
+                        log.info("Skipped migrating case {}, not accepted on its ES data", caseId);
+                        recordSkipped(caseId);
+                        continue;
+                    }
+                    caseIds.add(caseId);
+                }
+                slice.pageLoaded(cases.get(cases.size() - 1).getId().toString(), caseIds);
+                if (!enqueueAll(caseIds)) {
+                    return;
+                }
+                cases = reader.nextPage();
+            }
+        } catch (EsSearchException e) {
+            // the cases already queued are still migrated, the checkpoint cursor lets a rerun carry on from here
+            log.error("Stopped loading slice {}: {}", sliceKey, e.getMessage(), e);
+            stoppedEarly = true;
+        }
+    }
 
-            // migrate the failed cases
-            this.migrateList(toRetry);
+    private void skipRejected(EsQuery rejected) throws InterruptedException {
+        int skipped = 0;
+        try (EsPageReader reader = new EsPageReader(elasticSearchRepository, userTokenProvider::getToken, caseType,
+            rejected, defaultQuerySize, List.of(), null, prefetchDepth)) {
+            List<CaseDetails> cases = reader.nextPage();
+            while (!cases.isEmpty() && remainingMillis() > 0) {
+                for (CaseDetails caseDetails : cases) {
+                    // a case an interrupted run migrated may no longer match the acceptance clause, it was not skipped
+                    if (!checkpoint.isDone(caseDetails.getId())) {
+                        recordRejected(caseDetails.getId());
+                        skipped++;
+                    }
+                }
+                cases = reader.nextPage();
+            }
+        } catch (EsSearchException e) {
+            // the cases not reached are missing from the skipped count, they are still left out of the migration
+            log.error("Stopped skipping cases the migration does not accept: {}", e.getMessage(), e);
         }
+        log.info("Skipped {} cases the migration does not accept without calling CCD", skipped);
     }
 
     private int paginate(int total) {
@@ -267,10 +785,16 @@ public class CaseMigrationProcessor {
     }
 
     private void publishStats(LocalDateTime startTime) {
+        LocalDateTime finishTime = now();
+        Duration duration = Duration.between(startTime, finishTime);
+        int migrated = getMigratedCases().size();
+        int skipped = getSkippedCases().size();
+        int failed = getFailedCases().size();
+
         log.info(LOG_STRING);
         log.info(
             "FPLA Data migration completed: Total number of processed cases: {}",
-            getMigratedCases().size() + getFailedCases().size()
+            migrated + failed
         );
 
         String[] task = {"Migrated", "migrations"};
@@ -278,29 +802,91 @@ public class CaseMigrationProcessor {
             task = new String[]{"Rolled back", "rollbacks"};
         }
 
-        if (getMigratedCases().isEmpty()) {
+        if (migrated == 0) {
             log.info("{} cases: NONE ", task[0]);
         } else {
             log.info(
                 "Total number of {} performed: {} ",
                 task[1],
-                getMigratedCases().size()
+                migrated
             );
         }
 
-        if (getSkippedCases().isEmpty()) {
+        if (skipped == 0) {
             log.info("Skipped cases: NONE ");
         } else {
-            log.info("Skipped count:{}, cases: {} ", getSkippedCases().size(), getSkippedCases());
+            log.info("Skipped count:{}, cases: {}", skipped, idsOf(getSkippedCases(), resultFiles.getSkippedFile()));
         }
 
-        if (getFailedCases().isEmpty()) {
+        if (failed == 0) {
             log.info("Failed cases: NONE ");
         } else {
-            log.info("Failed count:{}, cases: {} ", getFailedCases().size(), getFailedCases());
+            log.info("Failed count:{}, cases: {}", failed, idsOf(getFailedCases(), resultFiles.getFailedFile()));
         }
 
-        log.info("Data migration start at {} and completed at {}", startTime, now());
+        if (retried.get() > 0) {
+            log.info("Retried {} case updates that failed", retried.get());
+        }
+
+        if (duplicates.get() > 0) {
+            log.info("Skipped {} duplicate case ids that had already been queued", duplicates.get());
+        }
+
+        long seconds = Math.max(duration.toSeconds(), 1);
+        log.info("Processed {} cases in {}s, {} cases/s", migrated + skipped + failed, duration.toSeconds(),
+            (migrated + skipped + failed) / seconds);
+        if (updateLatency.count() > 0) {
+            log.info("Case update latency p50: {}ms, p95: {}ms, p99: {}ms",
+                updateLatency.percentile(0.5).toMillis(),
+                updateLatency.percentile(0.95).toMillis(),
+                updateLatency.percentile(0.99).toMillis());
+        }
+        metrics.logSummary();
+
+        log.info("Data migration start at {} and completed at {}", startTime, finishTime);
+    }
+
+    private record Attempts(int count, long firstStarted) {
+    }
+
+    private record RetryCase(long caseId, long dueNanos) implements Delayed {
+
+        static RetryCase end() {
+            return new RetryCase(END_OF_QUEUE, System.nanoTime());
+        }
+
+        boolean isEnd() {
+            return caseId == END_OF_QUEUE;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueNanos - System.nanoTime(), NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(getDelay(NANOSECONDS), other.getDelay(NANOSECONDS));
+        }
+    }
+
+    /**
+     * Only a sample of the ids is logged when the full list is in a result file, otherwise the log is the only record
+     * of them, so it gets the lot.
+     */
+    private static String idsOf(CaseIdSink cases, Optional<Path> file) {
+        if (file.isEmpty()) {
+            return join(cases.toArray());
+        }
+        int more = cases.size() - LOGGED_SAMPLE_SIZE;
+        return join(cases.sample(LOGGED_SAMPLE_SIZE)) + (more > 0 ? " and " + more + " more" : "") + ", all in "
+            + file.get();
+    }
+
+    private static String join(long[] caseIds) {
+        return Arrays.stream(caseIds)
+            .mapToObj(Long::toString)
+            .collect(Collectors.joining(", ", "[", "]"));
     }
 
 }
@@ -12,7 +12,9 @@ import uk.gov.hmcts.reform.migration.configuration.CaseIdListConfiguration;
 import uk.gov.hmcts.reform.migration.query.EsQuery;
 import uk.gov.hmcts.reform.migration.service.DataMigrationService;
 
+import java.nio.file.Path;
 import java.util.List;
+import java.util.Optional;
 
 @Slf4j
 @SpringBootApplication(scanBasePackages = {
@@ -52,7 +54,11 @@ public class CaseMigrationRunner implements CommandLineRunner {
             }
             log.info("Migration ID is {}", migrationId);
             dataMigrationService.validateMigrationId(migrationId);
-            if (useIdList) {
+            Optional<Path> caseIdFile = caseIdListConfiguration.getCaseIdFile();
+            if (useIdList && caseIdFile.isPresent()) {
+                // Do ID List Migration, streamed from a file
+                caseMigrationProcessor.migrateFile(caseIdFile.get());
+            } else if (useIdList) {
                 // Do ID List Migration
                 List<String> caseIds = caseIdListConfiguration.getCaseIds(migrationId);
                 caseMigrationProcessor.migrateList(caseIds);
@@ -0,0 +1,8 @@
+package uk.gov.hmcts.reform.migration;
+
+public enum ExecutorMode {
+    // fixed pool of default.thread.limit platform threads, each pulling cases off the queue
+    FORK_JOIN,
+    // one virtual thread per case, with default.thread.limit capping the number in flight
+    VIRTUAL
+}
@@ -0,0 +1,26 @@
+package uk.gov.hmcts.reform.migration;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * What a run migrates and how hard it drives CCD and Elasticsearch while doing it.
+ */
+@Getter
+@Builder(toBuilder = true)
+public class MigrationSettings {
+
+    private final String migrationId;
+    private final String jurisdiction;
+    private final String caseType;
+    // cases asked for per Elasticsearch page
+    private final int querySize;
+    // pages fetched ahead of the page being queued
+    private final int prefetchDepth;
+    // reference ranges scanned in parallel
+    private final int slices;
+    private final int threadLimit;
+    private final ExecutorMode executorMode;
+    // seconds the whole run may take
+    private final int timeout;
+}
@@ -1,28 +1,43 @@
 package uk.gov.hmcts.reform.migration.auth;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Lazy;
 import uk.gov.hmcts.reform.authorisation.ServiceAuthorisationApi;
 import uk.gov.hmcts.reform.authorisation.generators.AuthTokenGenerator;
+import uk.gov.hmcts.reform.authorisation.generators.ServiceAuthTokenGenerator;
+import uk.gov.hmcts.reform.migration.metrics.MigrationMetrics;
 
-import static uk.gov.hmcts.reform.authorisation.generators.AuthTokenGeneratorFactory.createDefaultGenerator;
+import java.time.Duration;
 
 @Configuration
 @Lazy
 public class AuthTokenGeneratorConfiguration {
 
-    @Bean
-    public AuthTokenGenerator serviceAuthTokenGenerator(
+    @Bean(destroyMethod = "shutdown")
+    public CachedServiceTokenGenerator serviceAuthTokenGenerator(
         @Value("${idam.s2s-auth.totp_secret}") final String secret,
         @Value("${idam.s2s-auth.microservice}") final String microService,
-        final ServiceAuthorisationApi serviceAuthorisationApi
+        @Value("${idam.s2s-auth.refresh_ahead:300}") final int refreshAheadSeconds,
+        @Value("${idam.s2s-auth.default_ttl:3600}") final int defaultTtlSeconds,
+        final ServiceAuthorisationApi serviceAuthorisationApi,
+        final ObjectMapper objectMapper,
+        final MigrationMetrics metrics
     ) {
-
-        return createDefaultGenerator(secret,
+        // the plain generator leases a new token on every call, the cache decides when that is needed
+        AuthTokenGenerator leaseGenerator = new ServiceAuthTokenGenerator(secret,
             microService,
             serviceAuthorisationApi);
+
+        return new CachedServiceTokenGenerator(new RefreshingToken("s2s",
+            leaseGenerator::generate,
+            objectMapper,
+            Duration.ofSeconds(refreshAheadSeconds),
+            Duration.ofSeconds(defaultTtlSeconds),
+            metrics.tokenHits("s2s"),
+            metrics.tokenRefreshes("s2s")));
     }
 
 }
@@ -0,0 +1,25 @@
+package uk.gov.hmcts.reform.migration.auth;
+
+import uk.gov.hmcts.reform.authorisation.generators.AuthTokenGenerator;
+
+/**
+ * Hands out one S2S token to every caller and renews it on a schedule, so generating a token for a CCD call never
+ * waits on the lease endpoint or on another worker.
+ */
+public class CachedServiceTokenGenerator implements AuthTokenGenerator {
+
+    private final RefreshingToken token;
+
+    public CachedServiceTokenGenerator(RefreshingToken token) {
+        this.token = token;
+    }
+
+    @Override
+    public String generate() {
+        return token.get();
+    }
+
+    public void shutdown() {
+        token.shutdown();
+    }
+}
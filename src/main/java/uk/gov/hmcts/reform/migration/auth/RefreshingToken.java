@@ -0,0 +1,159 @@
+package uk.gov.hmcts.reform.migration.auth;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.Supplier;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * A token shared between workers and renewed in the background before it expires, so reading it is a volatile read.
+ *
+ * <p>The expiry comes from the JWT {@code exp} claim, or {@code defaultTtl} when the token cannot be read.
+ */
+@Slf4j
+public class RefreshingToken {
+
+    private static final Duration MIN_REFRESH_DELAY = Duration.ofSeconds(1);
+    private static final Duration RETRY_DELAY = Duration.ofSeconds(10);
+
+    private final String name;
+    private final Supplier<String> source;
+    private final ObjectMapper objectMapper;
+    private final Duration refreshAhead;
+    private final Duration defaultTtl;
+    private final Counter hits;
+    private final Counter refreshes;
+    private final ScheduledExecutorService scheduler;
+
+    private volatile Token current;
+    private ScheduledFuture<?> scheduledRefresh;
+
+    public RefreshingToken(String name,
+                           Supplier<String> source,
+                           ObjectMapper objectMapper,
+                           Duration refreshAhead,
+                           Duration defaultTtl,
+                           Counter hits,
+                           Counter refreshes) {
+        this.name = name;
+        this.source = source;
+        this.objectMapper = objectMapper;
+        this.refreshAhead = refreshAhead;
+        this.defaultTtl = defaultTtl;
+        this.hits = hits;
+        this.refreshes = refreshes;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, name + "-token-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Returns the current token, only blocking if there is none yet or the background refresh has fallen behind.
+     */
+    public String get() {
+        Token token = current;
+        if (token == null || token.isExpired()) {
+            token = refreshNow(token);
+        } else {
+            hits.increment();
+        }
+        return token.value();
+    }
+
+    /**
+     * Drops the token if it is still the current one, so the next caller fetches a new token rather than reusing one
+     * that has been rejected.
+     */
+    public synchronized void invalidate(String value) {
+        Token token = current;
+        if (token != null && token.value().equals(value)) {
+            current = null;
+        }
+    }
+
+    private synchronized Token refreshNow(Token seen) {
+        Token token = current;
+        if (token != seen && token != null && !token.isExpired()) {
+            // another worker renewed it while we were waiting
+            hits.increment();
+            return token;
+        }
+        token = fetch();
+        current = token;
+        scheduleRefresh(token);
+        return token;
+    }
+
+    private void backgroundRefresh() {
+        try {
+            Token token = fetch();
+            current = token;
+            scheduleRefresh(token);
+        } catch (Exception e) {
+            log.error("Could not refresh the {} token, retrying in {}s", name, RETRY_DELAY.toSeconds(), e);
+            schedule(RETRY_DELAY);
+        }
+    }
+
+    private void scheduleRefresh(Token token) {
+        Duration lifetime = Duration.between(Instant.now(), token.expiresAt());
+        Duration delay = lifetime.minus(refreshAhead);
+        if (delay.compareTo(lifetime.dividedBy(2)) < 0) {
+            // short lived token, refresh half way through rather than straight away
+            delay = lifetime.dividedBy(2);
+        }
+        schedule(delay.compareTo(MIN_REFRESH_DELAY) < 0 ? MIN_REFRESH_DELAY : delay);
+    }
+
+    private synchronized void schedule(Duration delay) {
+        if (scheduledRefresh != null) {
+            scheduledRefresh.cancel(false);
+        }
+        log.debug("Next {} token refresh in {}s", name, delay.toSeconds());
+        scheduledRefresh = scheduler.schedule(this::backgroundRefresh, delay.toMillis(), MILLISECONDS);
+    }
+
+    private Token fetch() {
+        String value = source.get();
+        refreshes.increment();
+        return new Token(value, expiryOf(value));
+    }
+
+    Instant expiryOf(String token) {
+        try {
+            String jwt = token.startsWith("Bearer ") ? token.substring("Bearer ".length()) : token;
+            String[] parts = jwt.split("\\.");
+            if (parts.length >= 2) {
+                JsonNode claims = objectMapper.readTree(Base64.getUrlDecoder().decode(parts[1]));
+                if (claims.hasNonNull("exp")) {
+                    return Instant.ofEpochSecond(claims.get("exp").asLong());
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Could not read the expiry of the {} token, assuming {}s", name, defaultTtl.toSeconds());
+        }
+        return Instant.now().plus(defaultTtl);
+    }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private record Token(String value, Instant expiresAt) {
+        boolean isExpired() {
+            return !Instant.now().isBefore(expiresAt);
+        }
+    }
+}
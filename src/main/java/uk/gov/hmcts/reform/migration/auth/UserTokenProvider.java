@@ -0,0 +1,57 @@
+package uk.gov.hmcts.reform.migration.auth;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import uk.gov.hmcts.reform.migration.metrics.MigrationMetrics;
+import uk.gov.hmcts.reform.migration.repository.IdamRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Shares the system user token between workers and renews it in the background before it expires.
+ */
+@Component
+public class UserTokenProvider {
+
+    private final RefreshingToken token;
+
+    public UserTokenProvider(IdamRepository idamRepository,
+                             ObjectMapper objectMapper,
+                             MigrationMetrics metrics,
+                             @Value("${idam.token.refresh_ahead:300}") int refreshAheadSeconds,
+                             @Value("${idam.token.default_ttl:3600}") int defaultTtlSeconds) {
+        this.token = new RefreshingToken("idam",
+            idamRepository::generateUserToken,
+            objectMapper,
+            Duration.ofSeconds(refreshAheadSeconds),
+            Duration.ofSeconds(defaultTtlSeconds),
+            metrics.tokenHits("idam"),
+            metrics.tokenRefreshes("idam"));
+    }
+
+    /**
+     * Returns the current token, only blocking if there is none yet or the background refresh has fallen behind.
+     */
+    public String getToken() {
+        return token.get();
+    }
+
+    /**
+     * Makes the next caller fetch a new token, if the given one is still current.
+     */
+    public void invalidate(String value) {
+        token.invalidate(value);
+    }
+
+    Instant expiryOf(String value) {
+        return token.expiryOf(value);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        token.shutdown();
+    }
+}
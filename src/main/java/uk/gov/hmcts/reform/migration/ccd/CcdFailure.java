@@ -0,0 +1,48 @@
+package uk.gov.hmcts.reform.migration.ccd;
+
+import feign.FeignException;
+import feign.RetryableException;
+
+import java.net.SocketTimeoutException;
+
+public enum CcdFailure {
+    CONFLICT,
+    THROTTLED,
+    SERVER_ERROR,
+    TIMEOUT,
+    UNAUTHORISED,
+    CLIENT_ERROR,
+    OTHER;
+
+    public static CcdFailure classify(Throwable throwable) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RetryableException || cause instanceof SocketTimeoutException) {
+                return TIMEOUT;
+            }
+            if (cause instanceof FeignException feignException && feignException.status() > 0) {
+                return fromStatus(feignException.status());
+            }
+        }
+        return OTHER;
+    }
+
+    public static CcdFailure fromStatus(int status) {
+        if (status == 409) {
+            return CONFLICT;
+        } else if (status == 429) {
+            return THROTTLED;
+        } else if (status == 401 || status == 403) {
+            return UNAUTHORISED;
+        } else if (status >= 500) {
+            return SERVER_ERROR;
+        }
+        return CLIENT_ERROR;
+    }
+
+    /**
+     * Whether the failure suggests CCD is struggling with the load rather than rejecting this particular case.
+     */
+    public boolean isOverload() {
+        return this == THROTTLED || this == SERVER_ERROR || this == TIMEOUT;
+    }
+}
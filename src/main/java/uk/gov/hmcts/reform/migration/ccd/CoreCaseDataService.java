@@ -14,10 +14,21 @@ import uk.gov.hmcts.reform.ccd.client.model.StartEventResponse;
 import uk.gov.hmcts.reform.idam.client.IdamClient;
 import uk.gov.hmcts.reform.idam.client.models.UserDetails;
 import uk.gov.hmcts.reform.migration.auth.AuthUtil;
+import uk.gov.hmcts.reform.migration.metrics.MigrationMetrics;
+import uk.gov.hmcts.reform.migration.query.EsQuery;
 import uk.gov.hmcts.reform.migration.service.DataMigrationService;
+import uk.gov.hmcts.reform.migration.throttling.RateLimits;
 
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
 
+import static uk.gov.hmcts.reform.migration.metrics.MigrationMetrics.Phase.IDAM_USER;
+import static uk.gov.hmcts.reform.migration.metrics.MigrationMetrics.Phase.S2S;
+import static uk.gov.hmcts.reform.migration.metrics.MigrationMetrics.Phase.START_EVENT;
+import static uk.gov.hmcts.reform.migration.metrics.MigrationMetrics.Phase.SUBMIT_EVENT;
+import static uk.gov.hmcts.reform.migration.metrics.MigrationMetrics.Phase.TRANSFORM;
 import static uk.gov.hmcts.reform.migration.service.DataMigrationService.MIGRATION_ID_KEY;
 
 @Slf4j
@@ -29,6 +40,11 @@ public class CoreCaseDataService {
     private final AuthTokenGenerator authTokenGenerator;
     private final CoreCaseDataApi coreCaseDataApi;
     private final DataMigrationService<Map<String, Object>> dataMigrationService;
+    private final RateLimits rateLimits;
+    private final MigrationMetrics metrics;
+
+    // the system user is fixed for a run, so only look it up again when the token changes
+    private final AtomicReference<CachedUserDetails> cachedUserDetails = new AtomicReference<>();
 
     public CaseDetails update(String authorisation, String eventId,
                               String eventSummary,
@@ -37,25 +53,28 @@ public class CoreCaseDataService {
                               CaseDetails caseDetails,
                               String migrationId) {
         String caseId = String.valueOf(caseDetails.getId());
-        UserDetails userDetails = idamClient.getUserDetails(AuthUtil.getBearerToken(authorisation));
+        UserDetails userDetails = getUserDetails(AuthUtil.getBearerToken(authorisation));
 
-        StartEventResponse startEventResponse = coreCaseDataApi.startEventForCaseWorker(
-            AuthUtil.getBearerToken(authorisation),
-            authTokenGenerator.generate(),
-            userDetails.getId(),
-            caseDetails.getJurisdiction(),
-            caseType,
-            caseId,
-            eventId);
+        rateLimits.getStartEvents().acquire();
+        String startServiceToken = serviceToken();
+        StartEventResponse startEventResponse = metrics.time(START_EVENT, () ->
+            coreCaseDataApi.startEventForCaseWorker(
+                AuthUtil.getBearerToken(authorisation),
+                startServiceToken,
+                userDetails.getId(),
+                caseDetails.getJurisdiction(),
+                caseType,
+                caseId,
+                eventId));
 
         CaseDetails updatedCaseDetails = startEventResponse.getCaseDetails();
 
         if (dataMigrationService.accepts().test(updatedCaseDetails)) {
             log.info("Initiating updating case {}", updatedCaseDetails.getId());
 
-            Map<String, Object> migratedFields = dataMigrationService.migrate(
+            Map<String, Object> migratedFields = metrics.time(TRANSFORM, () -> dataMigrationService.migrate(
                 updatedCaseDetails,
-                migrationId);
+                migrationId));
             migratedFields.put(MIGRATION_ID_KEY, migrationId);
 
             CaseDataContent caseDataContent = CaseDataContent.builder()
@@ -68,15 +87,18 @@ public class CoreCaseDataService {
                         .build()
                 ).data(migratedFields)
                 .build();
-            return coreCaseDataApi.submitEventForCaseWorker(
-                AuthUtil.getBearerToken(authorisation),
-                authTokenGenerator.generate(),
-                userDetails.getId(),
-                updatedCaseDetails.getJurisdiction(),
-                caseType,
-                caseId,
-                true,
-                caseDataContent);
+            rateLimits.getSubmitEvents().acquire();
+            String submitServiceToken = serviceToken();
+            return metrics.time(SUBMIT_EVENT, () ->
+                coreCaseDataApi.submitEventForCaseWorker(
+                    AuthUtil.getBearerToken(authorisation),
+                    submitServiceToken,
+                    userDetails.getId(),
+                    updatedCaseDetails.getJurisdiction(),
+                    caseType,
+                    caseId,
+                    true,
+                    caseDataContent));
         } else {
             log.info("For case id {}, court is {} and dfjArea is {}",
                 caseDetails.getId(),
@@ -87,7 +109,45 @@ public class CoreCaseDataService {
         }
     }
 
+    UserDetails getUserDetails(String bearerToken) {
+        CachedUserDetails cached = cachedUserDetails.get();
+        if (cached != null && cached.token().equals(bearerToken)) {
+            return cached.userDetails();
+        }
+        synchronized (cachedUserDetails) {
+            cached = cachedUserDetails.get();
+            if (cached == null || !cached.token().equals(bearerToken)) {
+                UserDetails userDetails = metrics.time(IDAM_USER, () -> idamClient.getUserDetails(bearerToken));
+                cached = new CachedUserDetails(bearerToken, userDetails);
+                cachedUserDetails.set(cached);
+            }
+            return cached.userDetails();
+        }
+    }
+
+    public List<String> getPrefetchFields(String migrationId) {
+        return dataMigrationService.getPrefetchFields(migrationId);
+    }
+
+    public Optional<EsQuery> getAcceptanceQuery(String migrationId) {
+        return dataMigrationService.getAcceptanceQuery(migrationId);
+    }
+
+    /**
+     * Checks a case against the migration using only the fields prefetched from ES.
+     */
+    public boolean acceptsPrefetched(CaseDetails caseDetails) {
+        return dataMigrationService.accepts().test(caseDetails);
+    }
+
     public SearchResult searchCases(String userToken, String caseType, String query) {
-        return coreCaseDataApi.searchCases(userToken, authTokenGenerator.generate(), caseType, query);
+        return coreCaseDataApi.searchCases(userToken, serviceToken(), caseType, query);
+    }
+
+    private String serviceToken() {
+        return metrics.time(S2S, authTokenGenerator::generate);
+    }
+
+    private record CachedUserDetails(String token, UserDetails userDetails) {
     }
 }
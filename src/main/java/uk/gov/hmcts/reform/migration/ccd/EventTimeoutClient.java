@@ -0,0 +1,47 @@
+package uk.gov.hmcts.reform.migration.ccd;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.regex.Pattern;
+
+/**
+ * Gives CCD start-event and submit-event calls their own timeouts, every other call keeps the Feign defaults.
+ *
+ * <p>Starting an event is a read that should come back quickly, whereas submitting runs CCD callbacks and can
+ * legitimately take much longer, so a single read timeout is either too short for one or too long for the other.
+ */
+public class EventTimeoutClient implements Client {
+
+    private static final Pattern START_EVENT = Pattern.compile(".*/cases/[^/]+/event-triggers/[^/]+/token$");
+    private static final Pattern SUBMIT_EVENT = Pattern.compile(".*/cases/[^/]+/events$");
+
+    private final Client delegate;
+    private final Request.Options startEventOptions;
+    private final Request.Options submitEventOptions;
+
+    public EventTimeoutClient(Client delegate, Request.Options startEventOptions, Request.Options submitEventOptions) {
+        this.delegate = delegate;
+        this.startEventOptions = startEventOptions;
+        this.submitEventOptions = submitEventOptions;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        return delegate.execute(request, optionsFor(request, options));
+    }
+
+    Request.Options optionsFor(Request request, Request.Options defaults) {
+        String path = URI.create(request.url()).getPath();
+        if (request.httpMethod() == Request.HttpMethod.GET && START_EVENT.matcher(path).matches()) {
+            return startEventOptions;
+        }
+        if (request.httpMethod() == Request.HttpMethod.POST && SUBMIT_EVENT.matcher(path).matches()) {
+            return submitEventOptions;
+        }
+        return defaults;
+    }
+}
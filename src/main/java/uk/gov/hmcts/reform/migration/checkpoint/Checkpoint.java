@@ -0,0 +1,215 @@
+package uk.gov.hmcts.reform.migration.checkpoint;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+
+/**
+ * Append-only record of a migration's progress, replayed on start-up so a killed or timed out run can carry on.
+ *
+ * <p>Each line is one of {@code M <caseId>}, {@code S <caseId>} or {@code F <caseId>} for a migrated, skipped or
+ * failed case, {@code C <slice> <searchAfter>} for the ES cursor up to which every case in a slice has finished, or
+ * {@code R <query> <lowest> <highest>} for the reference bounds a query was sliced between, which a resumed run reuses
+ * so its slices line up with the saved cursors.
+ * The last line for a case wins, so a failure that is later migrated counts as done. A run that gets through every
+ * case moves its checkpoint aside, so only an interrupted run is resumed.
+ */
+@Slf4j
+public class Checkpoint implements Closeable {
+
+    public static final Checkpoint DISABLED = new Checkpoint(null);
+    public static final String COMPLETED_SUFFIX = ".done";
+
+    private static final char MIGRATED = 'M';
+    private static final char SKIPPED = 'S';
+    private static final char FAILED = 'F';
+    private static final char CURSOR = 'C';
+    private static final char BOUNDS = 'R';
+
+    private final Path file;
+    private final Set<Long> done = new HashSet<>();
+    private final Set<Long> failed = new HashSet<>();
+    private final Map<String, String> cursors = new HashMap<>();
+    private final Map<String, Bounds> bounds = new HashMap<>();
+    private Writer writer;
+    private boolean writable;
+
+    private Checkpoint(Path file) {
+        this.file = file;
+    }
+
+    static Checkpoint open(Path file) throws IOException {
+        Checkpoint checkpoint = new Checkpoint(file);
+        if (Files.exists(file)) {
+            checkpoint.replay();
+            log.info("Resuming from checkpoint {}: {} cases done, {} to retry, {} cursors",
+                file, checkpoint.done.size(), checkpoint.failed.size(), checkpoint.cursors.size());
+        }
+        checkpoint.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, CREATE, APPEND);
+        checkpoint.writable = true;
+        if (!endsWithNewLine(file)) {
+            // keep the next entry off the end of a line cut short
+            checkpoint.append("");
+        }
+        return checkpoint;
+    }
+
+    private static boolean endsWithNewLine(Path file) throws IOException {
+        try (SeekableByteChannel channel = Files.newByteChannel(file)) {
+            if (channel.size() == 0) {
+                return true;
+            }
+            ByteBuffer last = ByteBuffer.allocate(1);
+            channel.position(channel.size() - 1).read(last);
+            return last.get(0) == '\n';
+        }
+    }
+
+    private void replay() throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                String[] parts = line.split(" ");
+                try {
+                    replay(parts);
+                } catch (RuntimeException e) {
+                    // most likely the last line, cut short when the pod was killed
+                    log.warn("Ignoring unreadable checkpoint line '{}'", line);
+                }
+            }
+        }
+    }
+
+    private void replay(String[] parts) {
+        switch (parts[0].charAt(0)) {
+            case MIGRATED, SKIPPED -> {
+                long caseId = Long.parseLong(parts[1]);
+                done.add(caseId);
+                failed.remove(caseId);
+            }
+            case FAILED -> {
+                long caseId = Long.parseLong(parts[1]);
+                done.remove(caseId);
+                failed.add(caseId);
+            }
+            case CURSOR -> cursors.put(parts[1], parts[2]);
+            case BOUNDS -> bounds.put(parts[1], new Bounds(Long.parseLong(parts[2]), Long.parseLong(parts[3])));
+            default -> throw new IllegalArgumentException("Unknown checkpoint entry " + parts[0]);
+        }
+    }
+
+    public boolean isEnabled() {
+        return file != null;
+    }
+
+    public boolean isDone(long caseId) {
+        return done.contains(caseId);
+    }
+
+    public boolean isFailed(long caseId) {
+        return failed.contains(caseId);
+    }
+
+    /**
+     * Cases that had failed when the previous run stopped, which a cursor may already have moved past.
+     */
+    public Set<Long> getFailed() {
+        return Set.copyOf(failed);
+    }
+
+    public Optional<String> getCursor(String slice) {
+        return Optional.ofNullable(cursors.get(slice));
+    }
+
+    public Optional<Bounds> getBounds(String query) {
+        return Optional.ofNullable(bounds.get(query));
+    }
+
+    public void migrated(long caseId) {
+        append(MIGRATED + " " + caseId);
+    }
+
+    public void skipped(long caseId) {
+        append(SKIPPED + " " + caseId);
+    }
+
+    public void failed(long caseId) {
+        append(FAILED + " " + caseId);
+    }
+
+    public void cursor(String slice, String searchAfter) {
+        append(CURSOR + " " + slice + " " + searchAfter);
+    }
+
+    public void bounds(String query, long lowest, long highest) {
+        append(BOUNDS + " " + query + " " + lowest + " " + highest);
+    }
+
+    private synchronized void append(String line) {
+        if (!writable) {
+            return;
+        }
+        try {
+            writer.write(line);
+            writer.write('\n');
+            writer.flush();
+        } catch (IOException e) {
+            log.error("Could not write to checkpoint {}, no further progress will be recorded", file, e);
+            writable = false;
+        }
+    }
+
+    /**
+     * Closes the checkpoint once the run has got through every case and moves it aside. The next run then starts from
+     * the top, picking up cases created since, while what this run recorded can still be looked at.
+     */
+    public synchronized void complete() {
+        close();
+        if (file == null || !Files.exists(file)) {
+            return;
+        }
+        Path completed = file.resolveSibling(file.getFileName() + COMPLETED_SUFFIX);
+        try {
+            Files.move(file, completed, REPLACE_EXISTING);
+            log.info("Run complete, moved checkpoint {} to {}", file, completed);
+        } catch (IOException e) {
+            log.error("Could not move checkpoint {} aside, the next run will resume from it", file, e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (writer == null) {
+            return;
+        }
+        writable = false;
+        try {
+            writer.close();
+        } catch (IOException e) {
+            log.error("Could not close checkpoint {}", file, e);
+        }
+    }
+
+    public record Bounds(long lowest, long highest) {
+    }
+}
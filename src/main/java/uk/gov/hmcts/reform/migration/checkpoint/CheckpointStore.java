@@ -0,0 +1,39 @@
+package uk.gov.hmcts.reform.migration.checkpoint;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.apache.commons.lang3.StringUtils.isBlank;
+
+@Slf4j
+@Component
+public class CheckpointStore {
+
+    private final Path directory;
+
+    public CheckpointStore(@Value("${case-migration.checkpoint.dir:}") String directory) {
+        this.directory = isBlank(directory) ? null : Path.of(directory);
+    }
+
+    /**
+     * Opens the checkpoint for a migration, replaying whatever an earlier run of the same migration recorded.
+     */
+    public Checkpoint open(String migrationId) {
+        if (directory == null) {
+            return Checkpoint.DISABLED;
+        }
+        Path file = directory.resolve(migrationId + ".checkpoint");
+        try {
+            Files.createDirectories(directory);
+            return Checkpoint.open(file);
+        } catch (IOException e) {
+            log.error("Could not open checkpoint {}, running without one", file, e);
+            return Checkpoint.DISABLED;
+        }
+    }
+}
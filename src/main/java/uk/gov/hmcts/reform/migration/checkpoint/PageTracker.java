@@ -0,0 +1,89 @@
+package uk.gov.hmcts.reform.migration.checkpoint;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Works out how far through each ES slice it is safe to resume from.
+ *
+ * <p>Workers finish cases out of order, so a page's cursor is only checkpointed once every case on it, and on every
+ * page before it, has finished.
+ */
+public class PageTracker {
+
+    private final Checkpoint checkpoint;
+    private final Map<Long, Page> pageOfCase = new ConcurrentHashMap<>();
+
+    public PageTracker(Checkpoint checkpoint) {
+        this.checkpoint = checkpoint;
+    }
+
+    public Slice slice(String key) {
+        return new Slice(key);
+    }
+
+    public void caseFinished(long caseId) {
+        Page page = pageOfCase.remove(caseId);
+        if (page != null && page.remaining.decrementAndGet() == 0) {
+            page.slice.advance();
+        }
+    }
+
+    public class Slice {
+        private final String key;
+        private final Deque<Page> pages = new ArrayDeque<>();
+
+        private Slice(String key) {
+            this.key = key;
+        }
+
+        /**
+         * Registers a page before its cases are queued.
+         *
+         * @param searchAfter the cursor that follows this page
+         * @param caseIds the cases from the page that will actually be queued
+         */
+        public void pageLoaded(String searchAfter, Collection<Long> caseIds) {
+            Page page = new Page(this, searchAfter, caseIds.size());
+            synchronized (this) {
+                pages.addLast(page);
+            }
+            int alreadyQueued = 0;
+            for (Long caseId : caseIds) {
+                if (pageOfCase.putIfAbsent(caseId, page) != null) {
+                    // seen on an earlier page that is still in flight, which will account for it
+                    alreadyQueued++;
+                }
+            }
+            if (page.remaining.addAndGet(-alreadyQueued) == 0) {
+                advance();
+            }
+        }
+
+        private synchronized void advance() {
+            String searchAfter = null;
+            while (!pages.isEmpty() && pages.peekFirst().remaining.get() == 0) {
+                searchAfter = pages.pollFirst().searchAfter;
+            }
+            if (searchAfter != null) {
+                checkpoint.cursor(key, searchAfter);
+            }
+        }
+    }
+
+    private static final class Page {
+        private final Slice slice;
+        private final String searchAfter;
+        private final AtomicInteger remaining;
+
+        private Page(Slice slice, String searchAfter, int size) {
+            this.slice = slice;
+            this.searchAfter = searchAfter;
+            this.remaining = new AtomicInteger(size);
+        }
+    }
+}
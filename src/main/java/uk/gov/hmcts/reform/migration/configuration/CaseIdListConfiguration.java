@@ -4,9 +4,11 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import uk.gov.hmcts.reform.domain.util.ConfigParser;
 
+import java.nio.file.Path;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import static org.apache.commons.lang3.StringUtils.isBlank;
 
@@ -14,9 +16,13 @@ import static org.apache.commons.lang3.StringUtils.isBlank;
 public class CaseIdListConfiguration {
 
     private final Map<String, List<String>> mapping;
+    private final Path file;
 
-    public CaseIdListConfiguration(@Value("${case-migration.case_id_list.mapping:}") String config) {
-        if (isBlank(config)) {
+    public CaseIdListConfiguration(@Value("${case-migration.case_id_list.mapping:}") String config,
+                                   @Value("${case-migration.case_id_list.file:}") String file) {
+        this.file = isBlank(file) ? null : Path.of(file);
+        if (this.file != null || isBlank(config)) {
+            // the file takes over from the mapping, so there is no need to hold every list in memory as well
             mapping = Collections.emptyMap();
         } else {
             mapping = ConfigParser.parseConfig(config);
@@ -26,4 +32,11 @@ public class CaseIdListConfiguration {
     public List<String> getCaseIds(String migrationId) {
         return this.mapping.getOrDefault(migrationId, List.of());
     }
+
+    /**
+     * Returns the file to stream case ids from, if one was given rather than a mapping.
+     */
+    public Optional<Path> getCaseIdFile() {
+        return Optional.ofNullable(file);
+    }
 }
@@ -0,0 +1,92 @@
+package uk.gov.hmcts.reform.migration.configuration;
+
+import feign.Client;
+import feign.Request;
+import feign.hc5.ApacheHttp5Client;
+import feign.http2client.Http2Client;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import uk.gov.hmcts.reform.migration.ccd.EventTimeoutClient;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * The HTTP transport shared by the CCD, IDAM and S2S Feign clients.
+ *
+ * <p>{@code POOLED} keeps a pool of HTTP/1.1 connections sized so every worker and ES loader can hold one to CCD at
+ * once, {@code HTTP2} multiplexes all calls to a host over the JDK client's HTTP/2 connections instead.
+ */
+@Slf4j
+@Configuration
+public class HttpClientConfiguration {
+
+    public enum HttpMode {
+        POOLED, HTTP2
+    }
+
+    // CCD, IDAM and S2S
+    private static final int ROUTES = 3;
+    // token refreshes and the odd call outside the workers
+    private static final int SPARE_CONNECTIONS = 2;
+
+    @Bean
+    public Client feignClient(
+        @Value("${case-migration.http.mode:POOLED}") HttpMode mode,
+        @Value("${default.thread.limit:8}") int threadLimit,
+        @Value("${case-migration.elasticsearch.slices:1}") int slices,
+        @Value("${case-migration.http.keep_alive:30}") int keepAliveSeconds,
+        @Value("${spring.cloud.openfeign.client.config.default.connectTimeout:60000}") int connectTimeoutMs,
+        @Value("${case-migration.http.start_event.read_timeout:60000}") int startEventTimeoutMs,
+        @Value("${case-migration.http.submit_event.read_timeout:60000}") int submitEventTimeoutMs) {
+        Client transport = mode == HttpMode.HTTP2
+            ? http2Client(connectTimeoutMs)
+            : pooledClient(threadLimit + slices + SPARE_CONNECTIONS, keepAliveSeconds, connectTimeoutMs);
+
+        return new EventTimeoutClient(transport,
+            new Request.Options(connectTimeoutMs, MILLISECONDS, startEventTimeoutMs, MILLISECONDS, true),
+            new Request.Options(connectTimeoutMs, MILLISECONDS, submitEventTimeoutMs, MILLISECONDS, true));
+    }
+
+    private Client pooledClient(int perRoute, int keepAliveSeconds, int connectTimeoutMs) {
+        log.info("Pooling up to {} HTTP connections per host", perRoute);
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+            .setMaxConnPerRoute(perRoute)
+            .setMaxConnTotal(perRoute * ROUTES)
+            .setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                // check a connection that has sat idle before reusing it rather than failing the call
+                .setValidateAfterInactivity(TimeValue.ofSeconds(keepAliveSeconds / 2))
+                .build())
+            .build();
+
+        CloseableHttpClient httpClient = HttpClients.custom()
+            .setConnectionManager(connectionManager)
+            .setKeepAliveStrategy((response, context) -> TimeValue.ofSeconds(keepAliveSeconds))
+            .evictIdleConnections(TimeValue.ofSeconds(keepAliveSeconds))
+            .evictExpiredConnections()
+            .disableCookieManagement()
+            .build();
+        return new ApacheHttp5Client(httpClient);
+    }
+
+    private Client http2Client(int connectTimeoutMs) {
+        log.info("Using HTTP/2 where the server supports it");
+        return new Http2Client(HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+            .build());
+    }
+}
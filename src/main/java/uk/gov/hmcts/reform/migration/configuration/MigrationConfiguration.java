@@ -0,0 +1,35 @@
+package uk.gov.hmcts.reform.migration.configuration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import uk.gov.hmcts.reform.migration.ExecutorMode;
+import uk.gov.hmcts.reform.migration.MigrationSettings;
+
+@Configuration
+public class MigrationConfiguration {
+
+    @Bean
+    public MigrationSettings migrationSettings(
+        @Value("${case-migration.processing.id}") String migrationId,
+        @Value("${migration.jurisdiction}") String jurisdiction,
+        @Value("${migration.caseType}") String caseType,
+        @Value("${default.query.size}") int querySize,
+        @Value("${case-migration.elasticsearch.prefetch_depth:2}") int prefetchDepth,
+        @Value("${case-migration.elasticsearch.slices:1}") int slices,
+        @Value("${default.thread.limit:8}") int threadLimit,
+        @Value("${default.thread.mode:FORK_JOIN}") ExecutorMode executorMode,
+        @Value("${case-migration.timeout:7200}") int timeout) {
+        return MigrationSettings.builder()
+            .migrationId(migrationId)
+            .jurisdiction(jurisdiction)
+            .caseType(caseType)
+            .querySize(querySize)
+            .prefetchDepth(prefetchDepth)
+            .slices(slices)
+            .threadLimit(threadLimit)
+            .executorMode(executorMode)
+            .timeout(timeout)
+            .build();
+    }
+}
@@ -0,0 +1,58 @@
+package uk.gov.hmcts.reform.migration.configuration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import uk.gov.hmcts.reform.migration.ccd.CcdFailure;
+import uk.gov.hmcts.reform.migration.retry.CcdFailureRetryPolicy;
+import uk.gov.hmcts.reform.migration.retry.ExponentialBackoffRetryPolicy;
+import uk.gov.hmcts.reform.migration.retry.RetryPolicy;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Configuration
+public class RetryConfiguration {
+
+    @Bean
+    public RetryPolicy searchRetryPolicy(
+        @Value("${case-migration.elasticsearch.retry.initial_delay_ms:200}") long initialDelayMs,
+        @Value("${case-migration.elasticsearch.retry.max_delay_ms:10000}") long maxDelayMs,
+        @Value("${case-migration.elasticsearch.retry.max_attempts:10}") int maxAttempts,
+        @Value("${case-migration.elasticsearch.retry.budget_ms:60000}") long budgetMs) {
+        return new ExponentialBackoffRetryPolicy(Duration.ofMillis(initialDelayMs), Duration.ofMillis(maxDelayMs),
+            maxAttempts, Duration.ofMillis(budgetMs), ExponentialBackoffRetryPolicy.TRANSIENT_CCD_FAILURES);
+    }
+
+    @Bean
+    public RetryPolicy caseRetryPolicy(
+        @Value("${case-migration.retry_failures:false}") boolean retryFailures,
+        @Value("${case-migration.retry.max_attempts:3}") int maxAttempts,
+        @Value("${case-migration.retry.conflict_delay_ms:1000}") long conflictDelayMs,
+        @Value("${case-migration.retry.server_error_delay_ms:5000}") long serverErrorDelayMs,
+        @Value("${case-migration.retry.timeout_delay_ms:10000}") long timeoutDelayMs,
+        @Value("${case-migration.retry.unauthorised_delay_ms:1000}") long unauthorisedDelayMs,
+        @Value("${case-migration.retry.max_delay_ms:60000}") long maxDelayMs,
+        @Value("${case-migration.retry.budget_ms:600000}") long budgetMs) {
+        if (!retryFailures) {
+            return RetryPolicy.NONE;
+        }
+        Duration maxDelay = Duration.ofMillis(maxDelayMs);
+        Duration budget = Duration.ofMillis(budgetMs);
+        Map<CcdFailure, RetryPolicy> byFailure = new EnumMap<>(CcdFailure.class);
+        byFailure.put(CcdFailure.CONFLICT, backoff(conflictDelayMs, maxDelay, maxAttempts, budget));
+        byFailure.put(CcdFailure.THROTTLED, backoff(serverErrorDelayMs, maxDelay, maxAttempts, budget));
+        byFailure.put(CcdFailure.SERVER_ERROR, backoff(serverErrorDelayMs, maxDelay, maxAttempts, budget));
+        byFailure.put(CcdFailure.TIMEOUT, backoff(timeoutDelayMs, maxDelay, maxAttempts, budget));
+        // the token is renewed before the retry, if a fresh token is rejected too waiting will not help
+        byFailure.put(CcdFailure.UNAUTHORISED, backoff(unauthorisedDelayMs, maxDelay, Math.min(maxAttempts, 2),
+            budget));
+        return new CcdFailureRetryPolicy(byFailure);
+    }
+
+    private static RetryPolicy backoff(long initialDelayMs, Duration maxDelay, int maxAttempts, Duration budget) {
+        return new ExponentialBackoffRetryPolicy(Duration.ofMillis(initialDelayMs), maxDelay, maxAttempts, budget,
+            failure -> true);
+    }
+}
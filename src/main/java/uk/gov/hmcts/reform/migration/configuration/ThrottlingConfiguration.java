@@ -0,0 +1,69 @@
+package uk.gov.hmcts.reform.migration.configuration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import uk.gov.hmcts.reform.migration.metrics.MigrationMetrics;
+import uk.gov.hmcts.reform.migration.throttling.AdaptiveConcurrencyLimiter;
+import uk.gov.hmcts.reform.migration.throttling.CircuitBreaker;
+import uk.gov.hmcts.reform.migration.throttling.ConcurrencyLimiter;
+import uk.gov.hmcts.reform.migration.throttling.RateLimits;
+import uk.gov.hmcts.reform.migration.throttling.SlidingWindowCircuitBreaker;
+import uk.gov.hmcts.reform.migration.throttling.TokenBucketRateLimiter;
+
+import java.time.Duration;
+
+@Slf4j
+@Configuration
+public class ThrottlingConfiguration {
+
+    @Bean
+    public ConcurrencyLimiter concurrencyLimiter(
+        @Value("${case-migration.adaptive.enabled:false}") boolean enabled,
+        @Value("${case-migration.adaptive.min_limit:1}") int minLimit,
+        @Value("${default.thread.limit:8}") int maxLimit,
+        @Value("${case-migration.adaptive.p95_target_ms:2000}") long p95TargetMs) {
+        if (!enabled) {
+            return ConcurrencyLimiter.NONE;
+        }
+        return new AdaptiveConcurrencyLimiter(minLimit, maxLimit, Duration.ofMillis(p95TargetMs));
+    }
+
+    @Bean
+    public CircuitBreaker circuitBreaker(
+        MigrationMetrics metrics,
+        @Value("${case-migration.circuit_breaker.enabled:true}") boolean enabled,
+        @Value("${case-migration.circuit_breaker.window_size:50}") int windowSize,
+        @Value("${case-migration.circuit_breaker.minimum_calls:20}") int minimumCalls,
+        @Value("${case-migration.circuit_breaker.failure_rate:0.5}") double failureRate,
+        @Value("${case-migration.circuit_breaker.open_ms:30000}") long openMs,
+        @Value("${case-migration.circuit_breaker.half_open_probes:3}") int halfOpenProbes) {
+        if (!enabled) {
+            return CircuitBreaker.NONE;
+        }
+        SlidingWindowCircuitBreaker circuitBreaker = new SlidingWindowCircuitBreaker(windowSize, minimumCalls,
+            failureRate, Duration.ofMillis(openMs), halfOpenProbes);
+        metrics.gauge("migration.circuit.open", "1 while case updates are paused by the circuit breaker",
+            circuitBreaker, breaker -> breaker.getState() == SlidingWindowCircuitBreaker.State.OPEN ? 1 : 0);
+        return circuitBreaker;
+    }
+
+    @Bean
+    public RateLimits rateLimits(
+        @Value("${case-migration.rate.cases_per_second:0}") double casesPerSecond,
+        @Value("${case-migration.rate.start_events_per_second:0}") double startEventsPerSecond,
+        @Value("${case-migration.rate.submit_events_per_second:0}") double submitEventsPerSecond,
+        @Value("${case-migration.rate.burst:1}") int burst,
+        @Value("${default.thread.limit:8}") int threadLimit,
+        @Value("${default.thread.delay:0}") int threadDelay) {
+        if (casesPerSecond <= 0 && threadDelay > 0) {
+            // the old per-thread sleep let each thread migrate one case per delay
+            casesPerSecond = (double) threadLimit / threadDelay;
+            log.info("default.thread.delay is deprecated, limiting to {} cases per second instead", casesPerSecond);
+        }
+        return new RateLimits(new TokenBucketRateLimiter(casesPerSecond, burst),
+            new TokenBucketRateLimiter(startEventsPerSecond, burst),
+            new TokenBucketRateLimiter(submitEventsPerSecond, burst));
+    }
+}
@@ -0,0 +1,183 @@
+package uk.gov.hmcts.reform.migration.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import uk.gov.hmcts.reform.migration.ccd.CcdFailure;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Timers for each phase of a case update and of the ES scan, plus the case outcome counters.
+ *
+ * <p>Every phase timer is tagged with {@code outcome=success} or {@code outcome=error}, so a slow run can be pinned
+ * on CCD, ES, IDAM or the transform itself.
+ */
+@Slf4j
+@Component
+public class MigrationMetrics {
+
+    public static final String PHASE_TIMER = "migration.phase";
+    public static final String CASES_COUNTER = "migration.cases";
+    public static final String ES_CASES_COUNTER = "migration.es.cases";
+    public static final String TOKEN_HITS_COUNTER = "migration.token.hits";
+    public static final String TOKEN_REFRESHES_COUNTER = "migration.token.refreshes";
+    public static final String ES_RETRIES_COUNTER = "migration.es.retries";
+    public static final String ES_GIVE_UPS_COUNTER = "migration.es.give_ups";
+    public static final String CASE_RETRIES_COUNTER = "migration.cases.retries";
+    public static final String DUPLICATES_COUNTER = "migration.cases.duplicates";
+
+    public enum Phase {
+        IDAM_USER("idam_user"),
+        S2S("s2s"),
+        START_EVENT("start_event"),
+        TRANSFORM("transform"),
+        SUBMIT_EVENT("submit_event"),
+        ES_PAGE("es_page");
+
+        private final String tag;
+
+        Phase(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    public enum Outcome {
+        MIGRATED, SKIPPED, FAILED
+    }
+
+    private final MeterRegistry registry;
+    private final Map<Phase, Timer> successTimers = new EnumMap<>(Phase.class);
+    private final Map<Phase, Timer> errorTimers = new EnumMap<>(Phase.class);
+    private final Map<Outcome, Counter> outcomeCounters = new EnumMap<>(Outcome.class);
+    private final Counter esCases;
+    private final Counter duplicates;
+
+    public MigrationMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        for (Phase phase : Phase.values()) {
+            successTimers.put(phase, timer(phase, "success"));
+            errorTimers.put(phase, timer(phase, "error"));
+        }
+        for (Outcome outcome : Outcome.values()) {
+            outcomeCounters.put(outcome, Counter.builder(CASES_COUNTER)
+                .description("Cases finished by the migration")
+                .tag("outcome", outcome.name().toLowerCase())
+                .register(registry));
+        }
+        this.esCases = Counter.builder(ES_CASES_COUNTER)
+            .description("Cases returned by ES pages")
+            .register(registry);
+        this.duplicates = Counter.builder(DUPLICATES_COUNTER)
+            .description("Cases found again after they had been queued, and not queued twice")
+            .register(registry);
+    }
+
+    /**
+     * Metrics that go nowhere, for code that is run outside of the Spring context.
+     */
+    public static MigrationMetrics noop() {
+        return new MigrationMetrics(new SimpleMeterRegistry());
+    }
+
+    private Timer timer(Phase phase, String outcome) {
+        return Timer.builder(PHASE_TIMER)
+            .description("Time spent in each phase of a case migration")
+            .tag("phase", phase.tag)
+            .tag("outcome", outcome)
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(registry);
+    }
+
+    public <T> T time(Phase phase, Supplier<T> call) {
+        long start = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            T result = call.get();
+            succeeded = true;
+            return result;
+        } finally {
+            (succeeded ? successTimers : errorTimers).get(phase).record(System.nanoTime() - start, NANOSECONDS);
+        }
+    }
+
+    public void caseFinished(Outcome outcome) {
+        outcomeCounters.get(outcome).increment();
+    }
+
+    public void esCasesFetched(int cases) {
+        esCases.increment(cases);
+    }
+
+    public void caseDuplicated() {
+        duplicates.increment();
+    }
+
+    public void esSearchRetried(CcdFailure failure) {
+        Counter.builder(ES_RETRIES_COUNTER)
+            .description("ES searches tried again after a failure")
+            .tag("failure", failure.name().toLowerCase())
+            .register(registry)
+            .increment();
+    }
+
+    public void esSearchGaveUp(CcdFailure failure) {
+        Counter.builder(ES_GIVE_UPS_COUNTER)
+            .description("ES searches that failed for good, either not worth retrying or out of retries")
+            .tag("failure", failure.name().toLowerCase())
+            .register(registry)
+            .increment();
+    }
+
+    public void caseRetried(CcdFailure failure) {
+        Counter.builder(CASE_RETRIES_COUNTER)
+            .description("Case updates scheduled to be tried again after a failure")
+            .tag("failure", failure.name().toLowerCase())
+            .register(registry)
+            .increment();
+    }
+
+    public Counter tokenHits(String token) {
+        return Counter.builder(TOKEN_HITS_COUNTER)
+            .description("Calls served from a cached token")
+            .tag("token", token)
+            .register(registry);
+    }
+
+    public Counter tokenRefreshes(String token) {
+        return Counter.builder(TOKEN_REFRESHES_COUNTER)
+            .description("Times a cached token was fetched again")
+            .tag("token", token)
+            .register(registry);
+    }
+
+    /**
+     * Logs the phase timings, the tool runs without a web server so nothing scrapes them while it runs.
+     */
+    public void logSummary() {
+        for (Phase phase : Phase.values()) {
+            Timer success = successTimers.get(phase);
+            Timer error = errorTimers.get(phase);
+            if (success.count() + error.count() > 0) {
+                log.info("Phase {}: {} calls, {} errors, success mean {}ms", phase.tag,
+                    success.count() + error.count(), error.count(), Math.round(success.mean(MILLISECONDS)));
+            }
+        }
+    }
+
+    public <T> void gauge(String name, String description, T state, ToDoubleFunction<T> value) {
+        Gauge.builder(name, state, value)
+            .description(description)
+            .register(registry);
+    }
+}
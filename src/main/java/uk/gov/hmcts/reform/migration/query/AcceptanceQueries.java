@@ -0,0 +1,31 @@
+package uk.gov.hmcts.reform.migration.query;
+
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Splits a migration query by the migration's acceptance clause, so the cases it would skip can be told apart during
+ * the ES scan instead of after a CCD start-event.
+ */
+public final class AcceptanceQueries {
+
+    private AcceptanceQueries() {
+    }
+
+    public static EsQuery accepted(EsQuery query, EsQuery acceptance) {
+        return BooleanQuery.builder()
+            .must(Must.of(requireNonNull(query)))
+            .filter(Filter.builder()
+                .clauses(List.of(requireNonNull(acceptance)))
+                .build())
+            .build();
+    }
+
+    public static EsQuery rejected(EsQuery query, EsQuery acceptance) {
+        return BooleanQuery.builder()
+            .must(Must.of(requireNonNull(query)))
+            .mustNot(MustNot.of(requireNonNull(acceptance)))
+            .build();
+    }
+}
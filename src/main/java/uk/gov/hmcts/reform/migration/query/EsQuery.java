@@ -2,16 +2,19 @@ package uk.gov.hmcts.reform.migration.query;
 
 import net.minidev.json.JSONObject;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
 public interface EsQuery extends EsClause {
+    List<String> DEFAULT_SOURCE = List.of("reference", "jurisdiction");
+
     default JSONObject toQueryContext(int size, int from) {
         return new JSONObject(Map.of(
             "size", size,
             "from", from,
             "query", this.toMap(),
-            "_source", List.of("reference", "jurisdiction"),
+            "_source", DEFAULT_SOURCE,
             "track_total_hits", true
         ));
     }
@@ -22,7 +25,7 @@ public interface EsQuery extends EsClause {
                 "from", from,
                 "query", this.toMap(),
                 "sort", sort.toMap(),
-                "_source", List.of("reference", "jurisdiction"),
+                "_source", DEFAULT_SOURCE,
                 "track_total_hits", true)
         );
     }
@@ -32,7 +35,7 @@ public interface EsQuery extends EsClause {
             "size", size,
             "query", this.toMap(),
             "sort", sort.toMap(),
-            "_source", List.of("reference", "jurisdiction"),
+            "_source", DEFAULT_SOURCE,
             "track_total_hits", true)
         );
     }
@@ -43,9 +46,38 @@ public interface EsQuery extends EsClause {
             "search_after", List.of(after),
             "query", this.toMap(),
             "sort", sort.toMap(),
-            "_source", List.of("reference", "jurisdiction"),
+            "_source", DEFAULT_SOURCE,
             "track_total_hits", true)
         );
     }
 
+    /**
+     * Same as {@link #toQueryContext(int, Sort)}, also bringing back the given fields, e.g. {@code data.court}.
+     */
+    default JSONObject toQueryContext(int size, Sort sort, List<String> sourceFields) {
+        JSONObject context = toQueryContext(size, sort);
+        context.put("_source", withDefaultSource(sourceFields));
+        return context;
+    }
+
+    /**
+     * Same as {@link #toQueryContext(int, String, Sort)}, also bringing back the given fields.
+     */
+    default JSONObject toQueryContext(int size, String after, Sort sort, List<String> sourceFields) {
+        JSONObject context = toQueryContext(size, after, sort);
+        context.put("_source", withDefaultSource(sourceFields));
+        return context;
+    }
+
+    private static List<String> withDefaultSource(List<String> sourceFields) {
+        if (sourceFields.isEmpty()) {
+            return DEFAULT_SOURCE;
+        }
+        List<String> source = new ArrayList<>(DEFAULT_SOURCE);
+        sourceFields.stream()
+            .filter(field -> !source.contains(field))
+            .forEach(source::add);
+        return source;
+    }
+
 }
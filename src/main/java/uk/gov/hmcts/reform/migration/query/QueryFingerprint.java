@@ -0,0 +1,53 @@
+package uk.gov.hmcts.reform.migration.query;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Identifies a query by what it searches for, so a later run can tell whether progress saved against it still applies.
+ *
+ * <p>The query's map is written out with every object's keys sorted, since the iteration order of {@code Map.of} can
+ * change from one JVM to the next, and the result is hashed with SHA-256. The same query gets the same fingerprint in
+ * every run.
+ */
+public final class QueryFingerprint {
+
+    private static final int FINGERPRINT_BYTES = 8;
+
+    private QueryFingerprint() {
+    }
+
+    public static String of(EsQuery query) {
+        byte[] canonical = canonical(requireNonNull(query).toMap()).getBytes(StandardCharsets.UTF_8);
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical);
+            return HexFormat.of().formatHex(digest, 0, FINGERPRINT_BYTES);
+        } catch (NoSuchAlgorithmException e) {
+            // every JVM has to provide SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String canonical(Object value) {
+        if (value instanceof Map<?, ?> map) {
+            return map.entrySet().stream()
+                .map(entry -> Map.entry(String.valueOf(entry.getKey()), canonical(entry.getValue())))
+                .sorted(Map.Entry.comparingByKey())
+                .map(entry -> entry.getKey() + ":" + entry.getValue())
+                .collect(Collectors.joining(",", "{", "}"));
+        }
+        if (value instanceof List<?> list) {
+            return list.stream()
+                .map(QueryFingerprint::canonical)
+                .collect(Collectors.joining(",", "[", "]"));
+        }
+        return String.valueOf(value);
+    }
+}
@@ -0,0 +1,48 @@
+package uk.gov.hmcts.reform.migration.query;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Splits a query into disjoint case reference ranges that can be paged independently.
+ *
+ * <p>Case references are all 16 digits, so ranges over {@code reference.keyword} compare the same lexically as
+ * numerically. The first and last slices are left open so cases created outside the sampled bounds are still found.
+ */
+public final class ReferenceSlices {
+
+    public static final String REFERENCE_FIELD = "reference.keyword";
+
+    private ReferenceSlices() {
+    }
+
+    public static List<EsQuery> slice(EsQuery query, long lowest, long highest, int slices) {
+        requireNonNull(query);
+        long span = highest - lowest + 1;
+        int count = (int) Math.min(slices, Math.max(span, 1));
+        if (count <= 1) {
+            return List.of(query);
+        }
+
+        List<EsQuery> queries = new ArrayList<>(count);
+        long width = span / count;
+        for (int i = 0; i < count; i++) {
+            RangeQuery.RangeQueryBuilder range = RangeQuery.builder().field(REFERENCE_FIELD);
+            if (i > 0) {
+                range.greaterThanOrEqual(String.valueOf(lowest + width * i));
+            }
+            if (i < count - 1) {
+                range.lessThan(String.valueOf(lowest + width * (i + 1)));
+            }
+            queries.add(BooleanQuery.builder()
+                .must(Must.of(query))
+                .filter(Filter.builder()
+                    .clauses(List.of(range.build()))
+                    .build())
+                .build());
+        }
+        return queries;
+    }
+}
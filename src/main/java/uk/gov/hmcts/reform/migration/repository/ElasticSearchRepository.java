@@ -3,25 +3,35 @@ package uk.gov.hmcts.reform.migration.repository;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Repository;
 import uk.gov.hmcts.reform.ccd.client.model.CaseDetails;
 import uk.gov.hmcts.reform.ccd.client.model.SearchResult;
+import uk.gov.hmcts.reform.migration.ccd.CcdFailure;
 import uk.gov.hmcts.reform.migration.ccd.CoreCaseDataService;
+import uk.gov.hmcts.reform.migration.metrics.MigrationMetrics;
 import uk.gov.hmcts.reform.migration.query.EsQuery;
 import uk.gov.hmcts.reform.migration.query.Sort;
 import uk.gov.hmcts.reform.migration.query.SortOrder;
 import uk.gov.hmcts.reform.migration.query.SortQuery;
+import uk.gov.hmcts.reform.migration.retry.RetryPolicy;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
 
 import static java.util.Objects.requireNonNull;
 import static org.springframework.util.ObjectUtils.isEmpty;
+import static uk.gov.hmcts.reform.migration.metrics.MigrationMetrics.Phase.ES_PAGE;
 
 @Repository
 @Slf4j
 public class ElasticSearchRepository {
 
     private final CoreCaseDataService ccdService;
+    private final MigrationMetrics metrics;
+    private final RetryPolicy retryPolicy;
 
     public static final Sort SORT_BY_REF = Sort.builder()
         .clauses(List.of(
@@ -29,49 +39,86 @@ public class ElasticSearchRepository {
         ))
         .build();
 
+    public static final Sort SORT_BY_REF_ASC = Sort.builder()
+        .clauses(List.of(
+            SortQuery.of("reference.keyword", SortOrder.ASC)
+        ))
+        .build();
+
     @Autowired
-    public ElasticSearchRepository(CoreCaseDataService ccdService) {
+    public ElasticSearchRepository(CoreCaseDataService ccdService,
+                                   MigrationMetrics metrics,
+                                   @Qualifier("searchRetryPolicy") RetryPolicy retryPolicy) {
         this.ccdService = ccdService;
+        this.metrics = metrics;
+        this.retryPolicy = retryPolicy;
     }
 
     public int searchResultsSize(String userToken, String caseType, EsQuery query) {
         requireNonNull(query);
-        return search(userToken, caseType, query.toQueryContext(1, 0).toString()).getTotal();
+        String queryStr = query.toQueryContext(1, 0).toString();
+        return withRetries(() -> search(userToken, caseType, queryStr)).getTotal();
+    }
+
+    public Optional<Long> findReference(String userToken, String caseType, EsQuery query, Sort sort) {
+        requireNonNull(query);
+        String queryStr = query.toQueryContext(1, sort).toString();
+        SearchResult result = withRetries(() -> search(userToken, caseType, queryStr));
+        if (isEmpty(result) || isEmpty(result.getCases())) {
+            return Optional.empty();
+        }
+        return Optional.of(result.getCases().get(0).getId());
     }
 
     public SearchResult search(String userToken, String caseType, String query) {
         return ccdService.searchCases(userToken, caseType, query);
     }
 
-    @SneakyThrows
     public List<CaseDetails> search(String userToken, String caseType, EsQuery query, int size, String after) {
-        requireNonNull(query);
-        SearchResult result = null;
-
-        // Attempt ES search with 20 retries
-        boolean completed = false;
-        int retries = 0;
-        while (!completed && retries < 20) {
-            try {
-                String queryStr = !isEmpty(after)
-                    ? query.toQueryContext(size, after, SORT_BY_REF).toString()
-                    : query.toQueryContext(size, SORT_BY_REF).toString();
+        return search(userToken, caseType, query, size, after, List.of());
+    }
 
-                result = search(userToken, caseType, queryStr);
-                completed = true;
-            } catch (Exception e) {
-                // let CCD recover if timeouts are happening
-                Thread.sleep(1000);
-                log.error("Failed to get page retry = {}", retries, e);
-                retries++;
-            }
-        }
+    /**
+     * Fetches a page of cases, including the given {@code _source} fields in their data on top of the reference.
+     *
+     * <p>Failures the retry policy deems transient are retried, anything else, or running out of retries, is thrown.
+     */
+    public List<CaseDetails> search(String userToken, String caseType, EsQuery query, int size, String after,
+                                    List<String> sourceFields) {
+        requireNonNull(query);
+        String queryStr = !isEmpty(after)
+            ? query.toQueryContext(size, after, SORT_BY_REF, sourceFields).toString()
+            : query.toQueryContext(size, SORT_BY_REF, sourceFields).toString();
 
+        SearchResult result = withRetries(() -> metrics.time(ES_PAGE, () -> search(userToken, caseType, queryStr)));
         if (isEmpty(result)) {
-            log.error("ES Query returned no cases after 20 retries, {}, {}",
-                query.toQueryContext(size, SORT_BY_REF), after);
+            log.error("ES Query returned no result, {}, {}", query.toQueryContext(size, SORT_BY_REF), after);
             return List.of();
         }
+        metrics.esCasesFetched(result.getCases().size());
         return result.getCases();
     }
+
+    @SneakyThrows(InterruptedException.class)
+    private <T> T withRetries(Supplier<T> search) {
+        long start = System.nanoTime();
+        for (int attempts = 1; ; attempts++) {
+            try {
+                return search.get();
+            } catch (RuntimeException e) {
+                CcdFailure failure = CcdFailure.classify(e);
+                Optional<Duration> delay = retryPolicy.retryAfter(e, attempts,
+                    Duration.ofNanos(System.nanoTime() - start));
+                if (delay.isEmpty()) {
+                    log.error("ES search failed for good after {} attempts ({})", attempts, failure);
+                    metrics.esSearchGaveUp(failure);
+                    throw e;
+                }
+                log.warn("ES search failed ({}), attempt {}, retrying in {}ms", failure, attempts,
+                    delay.get().toMillis(), e);
+                metrics.esSearchRetried(failure);
+                Thread.sleep(delay.get().toMillis());
+            }
+        }
+    }
 }
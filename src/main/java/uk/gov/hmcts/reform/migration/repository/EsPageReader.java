@@ -0,0 +1,123 @@
+package uk.gov.hmcts.reform.migration.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import uk.gov.hmcts.reform.ccd.client.model.CaseDetails;
+import uk.gov.hmcts.reform.domain.exception.EsSearchException;
+import uk.gov.hmcts.reform.migration.query.EsQuery;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Supplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Pages through an ES query on a background thread, keeping up to {@code prefetchDepth} pages ready so the next
+ * search_after request is already in flight while the caller is busy with the current page.
+ *
+ * <p>A {@code startAfter} reference resumes the scan from a checkpointed cursor, {@code null} starts from the top.
+ * Any {@code sourceFields} are brought back in each case's data.
+ *
+ * <p>Retrying a failed search is left to the repository, if it still fails the scan stops there.
+ */
+@Slf4j
+public class EsPageReader implements AutoCloseable {
+
+    private static final List<CaseDetails> END_OF_RESULTS = List.of();
+    // compared by identity, so it must not be the same instance as END_OF_RESULTS
+    private static final List<CaseDetails> SEARCH_FAILED = Collections.unmodifiableList(new ArrayList<>());
+
+    private final ElasticSearchRepository elasticSearchRepository;
+    private final Supplier<String> userToken;
+    private final String caseType;
+    private final EsQuery query;
+    private final int size;
+    private final List<String> sourceFields;
+    private final String startAfter;
+    private final BlockingQueue<List<CaseDetails>> pages;
+    private final Thread fetcher;
+    private volatile Failure failure;
+
+    public EsPageReader(ElasticSearchRepository elasticSearchRepository,
+                        Supplier<String> userToken,
+                        String caseType,
+                        EsQuery query,
+                        int size,
+                        List<String> sourceFields,
+                        String startAfter,
+                        int prefetchDepth) {
+        this.elasticSearchRepository = requireNonNull(elasticSearchRepository);
+        this.userToken = requireNonNull(userToken);
+        this.caseType = caseType;
+        this.query = requireNonNull(query);
+        this.size = size;
+        this.sourceFields = requireNonNull(sourceFields);
+        this.startAfter = startAfter;
+        this.pages = new ArrayBlockingQueue<>(Math.max(prefetchDepth, 1));
+        this.fetcher = new Thread(this::fetchPages, "es-page-reader");
+        this.fetcher.setDaemon(true);
+        this.fetcher.start();
+    }
+
+    /**
+     * Returns the next page of cases, waiting for it to arrive if it has not been fetched yet.
+     *
+     * @return the cases on the page, or an empty list once the results are exhausted
+     * @throws EsSearchException if the page could not be fetched, every later call throws it too
+     */
+    public List<CaseDetails> nextPage() throws InterruptedException {
+        Failure failed = failure;
+        if (failed == null) {
+            List<CaseDetails> page = pages.take();
+            if (page != SEARCH_FAILED) {
+                return page;
+            }
+            failed = failure;
+        }
+        throw new EsSearchException("Could not search for page " + failed.page() + " after case "
+            + failed.searchAfter(), failed.cause());
+    }
+
+    private void fetchPages() {
+        String searchAfter = startAfter;
+        int page = 0;
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                List<CaseDetails> cases;
+                try {
+                    cases = elasticSearchRepository.search(userToken.get(), caseType, query, size, searchAfter,
+                        sourceFields);
+                } catch (RuntimeException e) {
+                    log.error("Could not search for page {}, stopping the scan", page, e);
+                    failure = new Failure(page, searchAfter, e);
+                    pages.put(SEARCH_FAILED);
+                    return;
+                }
+
+                if (cases.isEmpty()) {
+                    pages.put(END_OF_RESULTS);
+                    return;
+                }
+
+                searchAfter = cases.get(cases.size() - 1).getId().toString();
+                page++;
+                log.debug("Fetched page {} with {} cases", page, cases.size());
+                // blocks once prefetchDepth pages are waiting to be read
+                pages.put(cases);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        fetcher.interrupt();
+    }
+
+    private record Failure(int page, String searchAfter, RuntimeException cause) {
+    }
+}
@@ -0,0 +1,58 @@
+package uk.gov.hmcts.reform.migration.results;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Newline-delimited case ids, optionally gzipped, written as the cases finish.
+ */
+@Slf4j
+public class CaseIdFile implements Closeable {
+
+    @Getter
+    private final Path file;
+    private final BufferedWriter writer;
+    private boolean writable = true;
+
+    CaseIdFile(Path file, boolean gzip) throws IOException {
+        this.file = file;
+        OutputStream out = Files.newOutputStream(file);
+        if (gzip) {
+            out = new GZIPOutputStream(out);
+        }
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.US_ASCII));
+    }
+
+    public synchronized void add(long caseId) {
+        if (!writable) {
+            return;
+        }
+        try {
+            writer.write(Long.toString(caseId));
+            writer.write('\n');
+        } catch (IOException e) {
+            log.error("Could not write to {}, it will be incomplete", file, e);
+            writable = false;
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        writable = false;
+        try {
+            writer.close();
+        } catch (IOException e) {
+            log.error("Could not close {}", file, e);
+        }
+    }
+}
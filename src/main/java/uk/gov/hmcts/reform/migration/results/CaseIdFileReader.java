@@ -0,0 +1,122 @@
+package uk.gov.hmcts.reform.migration.results;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Streams case ids out of a file, one buffer at a time, so a list of any length is read in constant memory.
+ *
+ * <p>Reads the format {@link CaseIdFile} writes, so a failed file from an earlier run can be fed straight back in:
+ * case references separated by newlines, commas, pipes or whitespace, gzipped or not. Gzip is spotted from the file's
+ * first bytes. Ids are parsed from the raw bytes into primitives, anything that is not a 16 digit reference, or is all
+ * zeros, is logged and skipped.
+ */
+@Slf4j
+public class CaseIdFileReader implements Closeable {
+
+    public static final long END_OF_FILE = -1;
+
+    private static final int REFERENCE_DIGITS = 16;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int GZIP_MAGIC = 0x8b1f;
+
+    @Getter
+    private final Path file;
+    private final InputStream in;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private long line = 1;
+
+    @Getter
+    private long read;
+    @Getter
+    private long invalid;
+
+    public CaseIdFileReader(Path file) throws IOException {
+        this.file = file;
+        InputStream raw = new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE);
+        raw.mark(2);
+        int magic = raw.read() | raw.read() << 8;
+        raw.reset();
+        this.in = magic == GZIP_MAGIC ? new GZIPInputStream(raw, BUFFER_SIZE) : raw;
+    }
+
+    /**
+     * Returns the next valid case id, or {@link #END_OF_FILE} once there are no more.
+     */
+    public long next() throws IOException {
+        long value = 0;
+        int digits = 0;
+        boolean valid = true;
+        int b;
+        while ((b = nextByte()) >= 0) {
+            if (b >= '0' && b <= '9') {
+                value = value * 10 + (b - '0');
+                digits++;
+            } else if (isSeparator(b)) {
+                long entryLine = b == '\n' ? line++ : line;
+                if (digits == 0 && valid) {
+                    continue;
+                }
+                if (isCaseReference(valid, digits, value)) {
+                    read++;
+                    return value;
+                }
+                skipInvalid(entryLine);
+                value = 0;
+                digits = 0;
+                valid = true;
+            } else {
+                valid = false;
+            }
+        }
+        if (isCaseReference(valid, digits, value)) {
+            read++;
+            return value;
+        } else if (digits > 0 || !valid) {
+            skipInvalid(line);
+        }
+        return END_OF_FILE;
+    }
+
+    private int nextByte() throws IOException {
+        if (position == limit) {
+            limit = in.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    private void skipInvalid(long entryLine) {
+        invalid++;
+        log.warn("Skipping an entry on line {} of {} that is not a {} digit case reference", entryLine, file,
+            REFERENCE_DIGITS);
+    }
+
+    private static boolean isCaseReference(boolean valid, int digits, long value) {
+        // all zeros has the right length but is never a case
+        return valid && digits == REFERENCE_DIGITS && value != 0;
+    }
+
+    private static boolean isSeparator(int b) {
+        return b == '\n' || b == '\r' || b == ',' || b == '|' || b == ' ' || b == '\t';
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
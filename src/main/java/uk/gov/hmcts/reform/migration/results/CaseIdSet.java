@@ -0,0 +1,135 @@
+package uk.gov.hmcts.reform.migration.results;
+
+/**
+ * Set of case ids that any number of loaders can add to at once, used to queue each case only once per run.
+ *
+ * <p>Ids are kept as primitives in open addressing tables with linear probing, so there is no boxing and no entry
+ * objects: each id costs between 11 and 21 bytes depending on how recently its table grew, a few million ids fit in
+ * tens of megabytes. The set is split into stripes by hash, each with its own lock and table, so concurrent loaders
+ * rarely wait on each other and a stripe that grows only copies its own share of the ids. Zero marks an empty slot,
+ * which is never a case reference.
+ */
+public class CaseIdSet {
+
+    private static final long EMPTY = 0;
+    private static final int STRIPE_BITS = 6;
+    private static final int STRIPES = 1 << STRIPE_BITS;
+    private static final int INITIAL_CAPACITY = 1 << 10;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    public CaseIdSet() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Adds a case id.
+     *
+     * @return false if the id was already in the set
+     */
+    public boolean add(long caseId) {
+        if (caseId == EMPTY) {
+            throw new IllegalArgumentException("Not a case id: " + caseId);
+        }
+        long hash = hash(caseId);
+        return stripes[(int) hash & (STRIPES - 1)].add(caseId, (int) (hash >>> 32));
+    }
+
+    public boolean contains(long caseId) {
+        if (caseId == EMPTY) {
+            return false;
+        }
+        long hash = hash(caseId);
+        return stripes[(int) hash & (STRIPES - 1)].contains(caseId, (int) (hash >>> 32));
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    /**
+     * Empties the set and gives back the memory its tables grew to.
+     */
+    public void clear() {
+        for (Stripe stripe : stripes) {
+            stripe.clear();
+        }
+    }
+
+    // case references are close together, so spread their bits before picking a stripe and a slot
+    private static long hash(long caseId) {
+        long hash = caseId;
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        return hash ^ hash >>> 33;
+    }
+
+    private static final class Stripe {
+        private long[] table = new long[INITIAL_CAPACITY];
+        private int size;
+
+        synchronized boolean add(long caseId, int hash) {
+            int mask = table.length - 1;
+            int slot = hash & mask;
+            long existing;
+            while ((existing = table[slot]) != EMPTY) {
+                if (existing == caseId) {
+                    return false;
+                }
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = caseId;
+            // keep the table at most three quarters full so probes stay short
+            if (++size * 4L > table.length * 3L) {
+                grow();
+            }
+            return true;
+        }
+
+        synchronized boolean contains(long caseId, int hash) {
+            int mask = table.length - 1;
+            int slot = hash & mask;
+            long existing;
+            while ((existing = table[slot]) != EMPTY) {
+                if (existing == caseId) {
+                    return true;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return false;
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        synchronized void clear() {
+            table = new long[INITIAL_CAPACITY];
+            size = 0;
+        }
+
+        private void grow() {
+            long[] grown = new long[table.length * 2];
+            int mask = grown.length - 1;
+            for (long caseId : table) {
+                if (caseId == EMPTY) {
+                    continue;
+                }
+                int slot = (int) (hash(caseId) >>> 32) & mask;
+                while (grown[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                grown[slot] = caseId;
+            }
+            table = grown;
+        }
+    }
+}
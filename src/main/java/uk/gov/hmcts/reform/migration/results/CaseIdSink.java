@@ -0,0 +1,94 @@
+package uk.gov.hmcts.reform.migration.results;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Append-only list of case ids that any number of workers can add to at once.
+ *
+ * <p>Ids are kept as primitives in fixed size chunks. Adding claims a slot with a single atomic increment; the only
+ * lock is taken when the chunk directory has to grow, which happens a handful of times per run. A snapshot taken
+ * while workers are still adding is only approximate, once they have finished it is exact.
+ */
+public class CaseIdSink {
+
+    private static final int CHUNK_BITS = 10;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int INITIAL_CHUNKS = 4;
+
+    // chunks are allocated up front when the directory grows, so a chunk never moves once it is visible
+    private volatile long[][] chunks = newChunks(new long[0][], INITIAL_CHUNKS);
+    private final AtomicLong claimed = new AtomicLong();
+    private final AtomicLong added = new AtomicLong();
+
+    public void add(long caseId) {
+        long index = claimed.getAndIncrement();
+        int chunk = (int) (index >>> CHUNK_BITS);
+        long[][] current = chunks;
+        if (chunk >= current.length) {
+            current = grow(chunk);
+        }
+        current[chunk][(int) (index & CHUNK_MASK)] = caseId;
+        added.incrementAndGet();
+    }
+
+    public int size() {
+        return (int) added.get();
+    }
+
+    public boolean isEmpty() {
+        return added.get() == 0;
+    }
+
+    public long[] toArray() {
+        return sample(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns up to {@code limit} of the ids, oldest first, without copying the rest.
+     */
+    public long[] sample(int limit) {
+        int size = Math.min(size(), limit);
+        long[][] current = chunks;
+        long[] ids = new long[size];
+        for (int i = 0; i < size; i++) {
+            ids[i] = current[i >>> CHUNK_BITS][i & CHUNK_MASK];
+        }
+        return ids;
+    }
+
+    /**
+     * Empties the sink, only to be called while nothing is adding to it.
+     */
+    public synchronized void clear() {
+        chunks = newChunks(new long[0][], INITIAL_CHUNKS);
+        claimed.set(0);
+        added.set(0);
+    }
+
+    private synchronized long[][] grow(int chunk) {
+        long[][] current = chunks;
+        if (chunk >= current.length) {
+            current = newChunks(current, Math.max(chunk + 1, current.length * 2));
+            chunks = current;
+        }
+        return current;
+    }
+
+    private static long[][] newChunks(long[][] existing, int count) {
+        long[][] grown = Arrays.copyOf(existing, count);
+        for (int i = existing.length; i < count; i++) {
+            grown[i] = new long[CHUNK_SIZE];
+        }
+        return grown;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.stream(toArray())
+            .mapToObj(Long::toString)
+            .collect(Collectors.joining(", ", "[", "]"));
+    }
+}
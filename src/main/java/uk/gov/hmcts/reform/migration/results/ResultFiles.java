@@ -0,0 +1,66 @@
+package uk.gov.hmcts.reform.migration.results;
+
+import java.io.Closeable;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * The migrated, skipped and failed case ids of a run, each in its own file that a later run can take as input.
+ */
+public class ResultFiles implements Closeable {
+
+    public static final ResultFiles DISABLED = new ResultFiles(null, null, null);
+
+    private final CaseIdFile migrated;
+    private final CaseIdFile skipped;
+    private final CaseIdFile failed;
+
+    ResultFiles(CaseIdFile migrated, CaseIdFile skipped, CaseIdFile failed) {
+        this.migrated = migrated;
+        this.skipped = skipped;
+        this.failed = failed;
+    }
+
+    public void migrated(long caseId) {
+        add(migrated, caseId);
+    }
+
+    public void skipped(long caseId) {
+        add(skipped, caseId);
+    }
+
+    public void failed(long caseId) {
+        add(failed, caseId);
+    }
+
+    public Optional<Path> getMigratedFile() {
+        return fileOf(migrated);
+    }
+
+    public Optional<Path> getSkippedFile() {
+        return fileOf(skipped);
+    }
+
+    public Optional<Path> getFailedFile() {
+        return fileOf(failed);
+    }
+
+    private static void add(CaseIdFile file, long caseId) {
+        if (file != null) {
+            file.add(caseId);
+        }
+    }
+
+    private static Optional<Path> fileOf(CaseIdFile file) {
+        return Optional.ofNullable(file).map(CaseIdFile::getFile);
+    }
+
+    @Override
+    public void close() {
+        for (CaseIdFile file : new CaseIdFile[]{migrated, skipped, failed}) {
+            if (file != null) {
+                file.close();
+            }
+        }
+    }
+}
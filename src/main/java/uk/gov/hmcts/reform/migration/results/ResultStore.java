@@ -0,0 +1,51 @@
+package uk.gov.hmcts.reform.migration.results;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.apache.commons.lang3.StringUtils.isBlank;
+
+@Slf4j
+@Component
+public class ResultStore {
+
+    private final Path directory;
+    private final boolean gzip;
+
+    public ResultStore(@Value("${case-migration.results.dir:}") String directory,
+                       @Value("${case-migration.results.gzip:false}") boolean gzip) {
+        this.directory = isBlank(directory) ? null : Path.of(directory);
+        this.gzip = gzip;
+    }
+
+    /**
+     * Starts a fresh set of result files for a run, replacing any left by an earlier run with the same name.
+     */
+    public ResultFiles open(String runName) {
+        if (directory == null) {
+            return ResultFiles.DISABLED;
+        }
+        CaseIdFile migrated = null;
+        CaseIdFile skipped = null;
+        try {
+            Files.createDirectories(directory);
+            migrated = new CaseIdFile(fileFor(runName, "migrated"), gzip);
+            skipped = new CaseIdFile(fileFor(runName, "skipped"), gzip);
+            return new ResultFiles(migrated, skipped, new CaseIdFile(fileFor(runName, "failed"), gzip));
+        } catch (IOException e) {
+            log.error("Could not create the result files for {} in {}, only counts will be logged",
+                runName, directory, e);
+            new ResultFiles(migrated, skipped, null).close();
+            return ResultFiles.DISABLED;
+        }
+    }
+
+    private Path fileFor(String runName, String outcome) {
+        return directory.resolve(runName + "-" + outcome + (gzip ? ".txt.gz" : ".txt"));
+    }
+}
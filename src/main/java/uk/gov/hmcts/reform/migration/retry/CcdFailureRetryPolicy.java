@@ -0,0 +1,26 @@
+package uk.gov.hmcts.reform.migration.retry;
+
+import uk.gov.hmcts.reform.migration.ccd.CcdFailure;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Picks the retry policy for a failed call by how CCD failed, so a conflict can come back quickly while an
+ * overloaded CCD is given longer to recover. Failures with no policy of their own are not retried.
+ */
+public class CcdFailureRetryPolicy implements RetryPolicy {
+
+    private final Map<CcdFailure, RetryPolicy> byFailure;
+
+    public CcdFailureRetryPolicy(Map<CcdFailure, RetryPolicy> byFailure) {
+        this.byFailure = byFailure.isEmpty() ? Map.of() : new EnumMap<>(byFailure);
+    }
+
+    @Override
+    public Optional<Duration> retryAfter(Throwable failure, int attempts, Duration elapsed) {
+        return byFailure.getOrDefault(CcdFailure.classify(failure), NONE).retryAfter(failure, attempts, elapsed);
+    }
+}
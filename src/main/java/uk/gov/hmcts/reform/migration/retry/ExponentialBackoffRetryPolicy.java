@@ -0,0 +1,68 @@
+package uk.gov.hmcts.reform.migration.retry;
+
+import uk.gov.hmcts.reform.migration.ccd.CcdFailure;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Retries failures that look transient, doubling the wait each time up to {@code maxDelay}.
+ *
+ * <p>Each wait is picked at random between half and all of the backed off delay, so callers that failed together do
+ * not all come back at once. No retry is made once {@code maxAttempts} is reached, or if waiting would take the call
+ * past its {@code budget}.
+ */
+public class ExponentialBackoffRetryPolicy implements RetryPolicy {
+
+    /**
+     * Timeouts, throttling and 5xx responses, a 4xx will fail the same way however often it is sent.
+     */
+    public static final Predicate<Throwable> TRANSIENT_CCD_FAILURES = failure -> failure instanceof RuntimeException
+        && CcdFailure.classify(failure).isOverload();
+
+    private final Duration initialDelay;
+    private final Duration maxDelay;
+    private final int maxAttempts;
+    private final Duration budget;
+    private final Predicate<Throwable> retryable;
+
+    public ExponentialBackoffRetryPolicy(Duration initialDelay,
+                                         Duration maxDelay,
+                                         int maxAttempts,
+                                         Duration budget,
+                                         Predicate<Throwable> retryable) {
+        this.initialDelay = requireNonNull(initialDelay);
+        this.maxDelay = requireNonNull(maxDelay);
+        this.maxAttempts = maxAttempts;
+        this.budget = requireNonNull(budget);
+        this.retryable = requireNonNull(retryable);
+    }
+
+    @Override
+    public Optional<Duration> retryAfter(Throwable failure, int attempts, Duration elapsed) {
+        if (attempts >= maxAttempts || !retryable.test(failure)) {
+            return Optional.empty();
+        }
+        Duration delay = jittered(backoff(attempts));
+        if (elapsed.plus(delay).compareTo(budget) > 0) {
+            return Optional.empty();
+        }
+        return Optional.of(delay);
+    }
+
+    Duration backoff(int attempts) {
+        // capped before shifting so a long run of failures cannot overflow
+        int doublings = Math.min(attempts - 1, 30);
+        long millis = initialDelay.toMillis() << doublings;
+        return millis <= 0 || millis > maxDelay.toMillis() ? maxDelay : Duration.ofMillis(millis);
+    }
+
+    private static Duration jittered(Duration delay) {
+        long half = delay.toMillis() / 2;
+        return Duration.ofMillis(half + ThreadLocalRandom.current().nextLong(delay.toMillis() - half + 1));
+    }
+}
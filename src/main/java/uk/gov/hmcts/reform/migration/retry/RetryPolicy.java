@@ -0,0 +1,21 @@
+package uk.gov.hmcts.reform.migration.retry;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Decides whether, and after how long, a failed call is tried again.
+ */
+public interface RetryPolicy {
+
+    RetryPolicy NONE = (failure, attempts, elapsed) -> Optional.empty();
+
+    /**
+     * Returns how long to wait before the next attempt, or empty to give up and let the failure through.
+     *
+     * @param failure what the last attempt threw
+     * @param attempts how many attempts have been made so far, including the one that just failed
+     * @param elapsed time since the first attempt started
+     */
+    Optional<Duration> retryAfter(Throwable failure, int attempts, Duration elapsed);
+}
@@ -3,6 +3,8 @@ package uk.gov.hmcts.reform.migration.service;
 import uk.gov.hmcts.reform.ccd.client.model.CaseDetails;
 import uk.gov.hmcts.reform.migration.query.EsQuery;
 
+import java.util.List;
+import java.util.Optional;
 import java.util.function.Predicate;
 
 public interface DataMigrationService<T> {
@@ -15,4 +17,25 @@ public interface DataMigrationService<T> {
     void validateMigrationId(String migrationId);
 
     EsQuery getQuery(String migrationId);
+
+    /**
+     * Fields, such as {@code data.court}, that {@link #accepts()} needs and that are safe to read from ES rather than
+     * a fresh start-event. When given they are fetched during the ES scan and cases that are not accepted are skipped
+     * without calling CCD; accepted cases are still checked again against the data from the start-event.
+     *
+     * <p>None of the current migrations accept by case data, so none override this yet and scans fetch ids only.
+     */
+    default List<String> getPrefetchFields(String migrationId) {
+        return List.of();
+    }
+
+    /**
+     * The cases {@link #accepts()} would accept, as an ES clause. When given, only matching cases are migrated and the
+     * rest are counted as skipped straight from the ES scan, without any CCD calls.
+     *
+     * <p>No current migration narrows its query this way, so none override this yet and no rejected cases are scanned.
+     */
+    default Optional<EsQuery> getAcceptanceQuery(String migrationId) {
+        return Optional.empty();
+    }
 }
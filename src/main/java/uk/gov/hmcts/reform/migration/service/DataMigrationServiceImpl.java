@@ -1,10 +1,9 @@
 package uk.gov.hmcts.reform.migration.service;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import uk.gov.hmcts.reform.adoption.model.common.Element;
 import uk.gov.hmcts.reform.ccd.client.model.CaseDetails;
@@ -34,10 +33,17 @@ import static java.util.Objects.requireNonNull;
 
 @Slf4j
 @Component
-@RequiredArgsConstructor(onConstructor = @__(@Autowired))
 public class DataMigrationServiceImpl implements DataMigrationService<Map<String, Object>> {
 
     public static final String COURT = "court";
+    private static final DateTimeFormatter TTL_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final DateTimeFormatter PAYMENT_CREATED_FORMAT =
+        DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSX");
+
+    private final ObjectMapper objectMapper;
+    private final JavaType applicationPaymentsType;
+    private final JavaType ttlType;
+
     private final Map<String, Function<CaseDetails, Map<String, Object>>> migrations = Map.of(
         "ADOP-log", this::triggerOnlyMigration,
         "ADOP-2555", this::triggerTtlMigration,
@@ -49,6 +55,14 @@ public class DataMigrationServiceImpl implements DataMigrationService<Map<String
         "ADOP-2555", this.casesInState("Draft")
     );
 
+    public DataMigrationServiceImpl(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.applicationPaymentsType = objectMapper.getTypeFactory()
+            .constructType(new TypeReference<List<Element<Map<String, Object>>>>() {});
+        this.ttlType = objectMapper.getTypeFactory()
+            .constructType(new TypeReference<HashMap<String, Object>>() {});
+    }
+
     private EsQuery casesInState(String state) {
         final MatchQuery matchState = MatchQuery.of("state", state);
 
@@ -117,7 +131,6 @@ public class DataMigrationServiceImpl implements DataMigrationService<Map<String
 
     public Map<String, Object> triggerTtlMigration(CaseDetails caseDetails) {
         HashMap<String, Object> ttlMap = new HashMap<>();
-        ObjectMapper objectMapper = new ObjectMapper();
 
         ttlMap.put("OverrideTTL", null);
         ttlMap.put("Suspended", "No");
@@ -125,12 +138,12 @@ public class DataMigrationServiceImpl implements DataMigrationService<Map<String
         switch (caseDetails.getState()) {
             case "Draft":
                 ttlMap.put("SystemTTL", caseDetails.getCreatedDate().toLocalDate().plusDays(90)
-                    .format(DateTimeFormatter.ofPattern("yyyy-MM-dd")));
+                    .format(TTL_DATE_FORMAT));
                 break;
             case "AwaitingPayment":
                 List<Element<Map<String,Object>>> applicationPayments = objectMapper.convertValue(
                     caseDetails.getData().getOrDefault("applicationPayments", null),
-                    new TypeReference<List<Element<Map<String,Object>>>>() {}
+                    applicationPaymentsType
                 );
 
                 if (isNull(applicationPayments)) {
@@ -138,24 +151,22 @@ public class DataMigrationServiceImpl implements DataMigrationService<Map<String
                         + "has no applicationPayments in case data as expected", caseDetails.getId()));
                 }
 
-                List<LocalDate> paymentDates = new ArrayList<>();
-                DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSX");
+                List<LocalDate> paymentDates = new ArrayList<>(applicationPayments.size());
                 for (Element<Map<String,Object>> payment : applicationPayments) {
                     String paymentString = payment.getValue().get("created").toString();
 
-                    paymentDates.add(LocalDateTime.parse(paymentString, formatter).toLocalDate());
+                    paymentDates.add(LocalDateTime.parse(paymentString, PAYMENT_CREATED_FORMAT).toLocalDate());
                 }
 
-                Collections.sort(paymentDates);
-                LocalDate oldestApplicationCreatedDate = paymentDates.get(0);
+                LocalDate oldestApplicationCreatedDate = Collections.min(paymentDates);
 
                 ttlMap.put("SystemTTL", oldestApplicationCreatedDate.plusDays(36524)
-                    .format(DateTimeFormatter.ofPattern("yyyy-MM-dd")));
+                    .format(TTL_DATE_FORMAT));
                 break;
             case "Submitted":
                 String dateSubmittedString = objectMapper.convertValue(
                     caseDetails.getData().getOrDefault("dateSubmitted", null),
-                    new TypeReference<String>() {}
+                    String.class
                 );
 
                 if (isNull(dateSubmittedString)) {
@@ -166,11 +177,11 @@ public class DataMigrationServiceImpl implements DataMigrationService<Map<String
                 LocalDate dateSubmitted = LocalDate.parse(dateSubmittedString);
 
                 ttlMap.put("SystemTTL", dateSubmitted.plusDays(36524)
-                    .format(DateTimeFormatter.ofPattern("yyyy-MM-dd")));
+                    .format(TTL_DATE_FORMAT));
                 break;
             case "LaSubmitted":
                 ttlMap.put("SystemTTL", caseDetails.getLastModified().toLocalDate().plusDays(36524)
-                    .format(DateTimeFormatter.ofPattern("yyyy-MM-dd")));
+                    .format(TTL_DATE_FORMAT));
                 break;
             default:
                 throw new AssertionError(format("Migration 2555, case with id: %s "
@@ -185,11 +196,9 @@ public class DataMigrationServiceImpl implements DataMigrationService<Map<String
     public Map<String, Object> triggerSuspendMigrationTtl(CaseDetails caseDetails) {
         HashMap<String, Object> updates = new HashMap<>();
         HashMap<String, Object> ttlMap = new HashMap<>();
-        ObjectMapper objectMapper = new ObjectMapper();
 
         if (caseDetails.getData().containsKey("TTL")) {
-            ttlMap = objectMapper.convertValue(caseDetails.getData().get("TTL"),
-                new TypeReference<HashMap<String, Object>>() {});
+            ttlMap = objectMapper.convertValue(caseDetails.getData().get("TTL"), ttlType);
 
             ttlMap.replace("Suspended", "Yes");
         } else {
@@ -9,32 +9,59 @@ import uk.gov.hmcts.reform.domain.util.ResourceReader;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
 
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toMap;
+import static java.util.stream.Collectors.toUnmodifiableList;
+
+/**
+ * Looks up DFJ areas by court code, indexed once at startup so a per-case lookup is a single hash probe.
+ */
 @Slf4j
 @Service
 public class DfjAreaLookUpService {
 
-    private final ObjectMapper objectMapper;
-    private List<DfjAreaCourtMapping> dfjCourtMapping;
+    private final Map<String, DfjAreaCourtMapping> byCourtCode;
+    private final Map<String, List<DfjAreaCourtMapping>> byDfjArea;
 
     public DfjAreaLookUpService(ObjectMapper objectMapper) {
-        this.objectMapper = objectMapper;
-        loadDfjMappings();
+        List<DfjAreaCourtMapping> dfjCourtMapping = loadDfjMappings(objectMapper);
+        // the first mapping for a court wins, as it did when the list was searched in order
+        this.byCourtCode = Map.copyOf(dfjCourtMapping.stream()
+            .collect(toMap(DfjAreaCourtMapping::getCourtCode, Function.identity(), (first, second) -> first)));
+        this.byDfjArea = Map.copyOf(dfjCourtMapping.stream()
+            .collect(groupingBy(DfjAreaCourtMapping::getDfjArea, toUnmodifiableList())));
     }
 
-    private void loadDfjMappings() {
+    private static List<DfjAreaCourtMapping> loadDfjMappings(ObjectMapper objectMapper) {
         try {
             final String jsonContent = ResourceReader.readString("static_data/dfjAreaCourtMapping.json");
-            dfjCourtMapping = objectMapper.readValue(jsonContent, new TypeReference<List<DfjAreaCourtMapping>>() {});
+            return objectMapper.readValue(jsonContent, new TypeReference<List<DfjAreaCourtMapping>>() {});
         } catch (IOException e) {
             log.error("Unable to parse dfjAreaCourtMapping.json file.", e);
+            return List.of();
         }
     }
 
     public DfjAreaCourtMapping getDfjArea(String courtCode) {
-        return dfjCourtMapping.stream()
-            .filter(dfjCourtMap -> dfjCourtMap.getCourtCode().equals(courtCode))
-            .findAny()
-            .orElseThrow(() -> new IllegalArgumentException("No dfjArea found for court code: " + courtCode));
+        DfjAreaCourtMapping mapping = courtCode == null ? null : byCourtCode.get(courtCode);
+        if (mapping == null) {
+            throw new IllegalArgumentException("No dfjArea found for court code: " + courtCode);
+        }
+        return mapping;
+    }
+
+    public Optional<DfjAreaCourtMapping> findDfjArea(String courtCode) {
+        return courtCode == null ? Optional.empty() : Optional.ofNullable(byCourtCode.get(courtCode));
+    }
+
+    /**
+     * Returns every court in the given DFJ area, or an empty list if there is no such area.
+     */
+    public List<DfjAreaCourtMapping> getCourts(String dfjArea) {
+        return dfjArea == null ? List.of() : byDfjArea.getOrDefault(dfjArea, List.of());
     }
 }
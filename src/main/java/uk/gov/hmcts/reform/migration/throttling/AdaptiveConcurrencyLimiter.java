@@ -0,0 +1,105 @@
+package uk.gov.hmcts.reform.migration.throttling;
+
+import lombok.extern.slf4j.Slf4j;
+import uk.gov.hmcts.reform.migration.ccd.CcdFailure;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Additive-increase, multiplicative-decrease limit on the number of case updates in flight.
+ *
+ * <p>Every successful call grows the limit by {@code 1 / limit}, so roughly one extra permit per round of calls. The
+ * limit is cut by {@link #BACKOFF_RATIO} when CCD throttles, errors or times out, or when the p95 latency of the last
+ * {@link #WINDOW_SIZE} calls goes over the target. Cuts are spaced at least one window apart so a burst of failures
+ * from calls that were already in flight only counts once.
+ */
+@Slf4j
+public class AdaptiveConcurrencyLimiter implements ConcurrencyLimiter {
+
+    static final int WINDOW_SIZE = 100;
+    static final double BACKOFF_RATIO = 0.5;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long p95TargetNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition permitReleased = lock.newCondition();
+    private final long[] latencies = new long[WINDOW_SIZE];
+
+    private double limit;
+    private int inFlight;
+    private int samples;
+    private int callsSinceDecrease = WINDOW_SIZE;
+
+    public AdaptiveConcurrencyLimiter(int minLimit, int maxLimit, Duration p95Target) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Invalid concurrency limits " + minLimit + " to " + maxLimit);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.p95TargetNanos = p95Target.toNanos();
+        this.limit = minLimit;
+    }
+
+    @Override
+    public void acquire() throws InterruptedException {
+        lock.lock();
+        try {
+            while (inFlight >= (int) limit) {
+                permitReleased.await();
+            }
+            inFlight++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void release(long latencyNanos, CcdFailure failure) {
+        lock.lock();
+        try {
+            inFlight--;
+            callsSinceDecrease++;
+            latencies[samples++ % WINDOW_SIZE] = latencyNanos;
+
+            if (failure != null && failure.isOverload()) {
+                decrease(failure.name());
+            } else if (samples % WINDOW_SIZE == 0 && p95() > p95TargetNanos) {
+                decrease("p95 latency");
+            } else if (failure == null) {
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+            permitReleased.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void decrease(String reason) {
+        if (callsSinceDecrease < WINDOW_SIZE) {
+            return;
+        }
+        callsSinceDecrease = 0;
+        limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+        log.info("Backing off to {} concurrent case updates due to {}", (int) limit, reason);
+    }
+
+    private long p95() {
+        long[] sorted = Arrays.copyOf(latencies, Math.min(samples, WINDOW_SIZE));
+        Arrays.sort(sorted);
+        return sorted[(int) Math.ceil(sorted.length * 0.95) - 1];
+    }
+}
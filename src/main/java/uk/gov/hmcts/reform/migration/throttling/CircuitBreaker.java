@@ -0,0 +1,61 @@
+package uk.gov.hmcts.reform.migration.throttling;
+
+import uk.gov.hmcts.reform.domain.exception.CcdUnavailableException;
+import uk.gov.hmcts.reform.migration.ccd.CcdFailure;
+
+import java.time.Duration;
+
+public interface CircuitBreaker {
+
+    CircuitBreaker NONE = new CircuitBreaker() {
+        private final Permit permit = new Permit(0);
+
+        @Override
+        public Permit acquire() {
+            // always closed
+            return permit;
+        }
+
+        @Override
+        public void release(Permit permit, CcdFailure failure) {
+            // nothing to record
+        }
+
+        @Override
+        public boolean awaitCallPermitted(Duration maxWait) {
+            return true;
+        }
+    };
+
+    /**
+     * Lets a call to CCD through, every call let through must be handed back with
+     * {@link #release(Permit, CcdFailure)}.
+     *
+     * @throws CcdUnavailableException if the circuit is open, or every half open probe is already in flight
+     */
+    Permit acquire();
+
+    /**
+     * Records the outcome of a call let through by {@link #acquire()}.
+     *
+     * @param permit what {@link #acquire()} returned for the call
+     * @param failure why the call failed, or null if it succeeded
+     */
+    void release(Permit permit, CcdFailure failure);
+
+    /**
+     * Waits until a call would be let through, so callers can hold back work rather than have it rejected.
+     *
+     * @return false if calls were still not being let through after {@code maxWait}
+     */
+    boolean awaitCallPermitted(Duration maxWait) throws InterruptedException;
+
+    /**
+     * A call let through, tagged with the circuit state it was let through in so its outcome is only counted
+     * towards that state.
+     *
+     * @param generation bumped on every change of state
+     */
+    record Permit(long generation) {
+    }
+}
@@ -0,0 +1,28 @@
+package uk.gov.hmcts.reform.migration.throttling;
+
+import uk.gov.hmcts.reform.migration.ccd.CcdFailure;
+
+public interface ConcurrencyLimiter {
+
+    ConcurrencyLimiter NONE = new ConcurrencyLimiter() {
+        @Override
+        public void acquire() {
+            // no limit beyond the worker count
+        }
+
+        @Override
+        public void release(long latencyNanos, CcdFailure failure) {
+            // nothing to record
+        }
+    };
+
+    void acquire() throws InterruptedException;
+
+    /**
+     * Hands back a permit taken by {@link #acquire()}.
+     *
+     * @param latencyNanos how long the call took
+     * @param failure why the call failed, or null if it succeeded
+     */
+    void release(long latencyNanos, CcdFailure failure);
+}
@@ -0,0 +1,18 @@
+package uk.gov.hmcts.reform.migration.throttling;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public class RateLimits {
+
+    public static final RateLimits NONE = new RateLimits(TokenBucketRateLimiter.UNLIMITED,
+        TokenBucketRateLimiter.UNLIMITED,
+        TokenBucketRateLimiter.UNLIMITED);
+
+    // cases started per second across all workers
+    private final TokenBucketRateLimiter cases;
+    private final TokenBucketRateLimiter startEvents;
+    private final TokenBucketRateLimiter submitEvents;
+}
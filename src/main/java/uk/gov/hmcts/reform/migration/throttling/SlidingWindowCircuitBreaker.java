@@ -0,0 +1,192 @@
+package uk.gov.hmcts.reform.migration.throttling;
+
+import lombok.extern.slf4j.Slf4j;
+import uk.gov.hmcts.reform.domain.exception.CcdUnavailableException;
+import uk.gov.hmcts.reform.migration.ccd.CcdFailure;
+
+import java.time.Duration;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Stops calling CCD once too many recent calls failed in a way that suggests CCD is down or overloaded.
+ *
+ * <p>The outcomes of the last {@code windowSize} calls are kept in a ring. Once there are at least
+ * {@code minimumCalls} in it and the share that were throttled, got a 5xx or timed out reaches
+ * {@code failureRateThreshold}, the circuit opens and calls are rejected for {@code openDuration}. It then goes half
+ * open and lets {@code halfOpenProbes} calls through: if they all succeed it closes again, if any fails it reopens.
+ * Other failures, such as a 409 or a 422, mean CCD is up and count as successes. A call only counts towards the state
+ * it was let through in, so a slow call from before the circuit opened is never taken for a probe.
+ */
+@Slf4j
+public class SlidingWindowCircuitBreaker implements CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openNanos;
+    private final int halfOpenProbes;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition stateChanged = lock.newCondition();
+    private final boolean[] window;
+
+    private State state = State.CLOSED;
+    // bumped on every change of state, so a call that outlives the state it was let through in is not counted
+    private long generation;
+    private int calls;
+    private int failures;
+    private int next;
+    private long openUntil;
+    private int probesInFlight;
+    private int probesSucceeded;
+
+    public SlidingWindowCircuitBreaker(int windowSize,
+                                       int minimumCalls,
+                                       double failureRateThreshold,
+                                       Duration openDuration,
+                                       int halfOpenProbes) {
+        if (windowSize < 1 || minimumCalls < 1 || minimumCalls > windowSize || halfOpenProbes < 1) {
+            throw new IllegalArgumentException("Invalid circuit breaker window " + windowSize + ", minimum calls "
+                + minimumCalls + ", half open probes " + halfOpenProbes);
+        }
+        this.windowSize = windowSize;
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.halfOpenProbes = halfOpenProbes;
+        this.window = new boolean[windowSize];
+    }
+
+    @Override
+    public Permit acquire() {
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            halfOpenIfDue(now);
+            if (state == State.OPEN) {
+                throw new CcdUnavailableException("Circuit open, not calling CCD", Duration.ofNanos(openUntil - now));
+            }
+            if (state == State.HALF_OPEN) {
+                if (probesInFlight >= halfOpenProbes) {
+                    // the probes should be back well within a read timeout, so wait about as long as they take
+                    throw new CcdUnavailableException("Circuit half open, probes already in flight",
+                        Duration.ofNanos(openNanos / 10));
+                }
+                probesInFlight++;
+            }
+            return new Permit(generation);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void release(Permit permit, CcdFailure failure) {
+        boolean failed = failure != null && failure.isOverload();
+        lock.lock();
+        try {
+            if (permit.generation() != generation) {
+                // let through before the circuit last changed state, what it says about CCD is out of date
+                return;
+            }
+            switch (state) {
+                case CLOSED -> {
+                    record(failed);
+                    if (calls >= minimumCalls && failures >= failureRateThreshold * calls) {
+                        open(String.format("%d of the last %d calls failed", failures, calls));
+                    }
+                }
+                case HALF_OPEN -> {
+                    probesInFlight--;
+                    if (failed) {
+                        open("a probe call failed with " + failure);
+                    } else if (++probesSucceeded >= halfOpenProbes) {
+                        close();
+                    }
+                    stateChanged.signalAll();
+                }
+                default -> throw new IllegalStateException("No call is let through while the circuit is " + state);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean awaitCallPermitted(Duration maxWait) throws InterruptedException {
+        long deadline = System.nanoTime() + maxWait.toNanos();
+        lock.lock();
+        try {
+            while (true) {
+                long now = System.nanoTime();
+                halfOpenIfDue(now);
+                if (state == State.CLOSED || (state == State.HALF_OPEN && probesInFlight < halfOpenProbes)) {
+                    return true;
+                }
+                long wait = deadline - now;
+                if (wait <= 0) {
+                    return false;
+                }
+                stateChanged.awaitNanos(state == State.OPEN ? Math.min(wait, openUntil - now) : wait);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public State getState() {
+        lock.lock();
+        try {
+            halfOpenIfDue(System.nanoTime());
+            return state;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void record(boolean failed) {
+        if (calls < windowSize) {
+            calls++;
+        } else if (window[next]) {
+            failures--;
+        }
+        window[next] = failed;
+        if (failed) {
+            failures++;
+        }
+        next = (next + 1) % windowSize;
+    }
+
+    private void halfOpenIfDue(long now) {
+        if (state == State.OPEN && now - openUntil >= 0) {
+            state = State.HALF_OPEN;
+            generation++;
+            probesInFlight = 0;
+            probesSucceeded = 0;
+            log.info("Probing CCD with {} case updates", halfOpenProbes);
+            stateChanged.signalAll();
+        }
+    }
+
+    private void open(String reason) {
+        state = State.OPEN;
+        generation++;
+        openUntil = System.nanoTime() + openNanos;
+        log.warn("Pausing case updates for {}ms, {}", Duration.ofNanos(openNanos).toMillis(), reason);
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        generation++;
+        calls = 0;
+        failures = 0;
+        next = 0;
+        log.info("CCD has recovered, resuming case updates");
+        stateChanged.signalAll();
+    }
+}
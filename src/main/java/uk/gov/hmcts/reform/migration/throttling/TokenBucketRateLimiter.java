@@ -0,0 +1,60 @@
+package uk.gov.hmcts.reform.migration.throttling;
+
+import lombok.Getter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Token bucket shared by every worker, giving a hard ceiling on calls per second.
+ *
+ * <p>Rather than topping up a counter, callers reserve the next free slot with a single compare-and-set and then
+ * sleep until it comes round. Up to {@code burst} slots can be claimed straight away after a quiet spell.
+ */
+public class TokenBucketRateLimiter {
+
+    public static final TokenBucketRateLimiter UNLIMITED = new TokenBucketRateLimiter(0, 1);
+
+    @Getter
+    private final double permitsPerSecond;
+    private final long nanosPerPermit;
+    private final long burstNanos;
+    private final AtomicLong nextFreeSlot;
+
+    public TokenBucketRateLimiter(double permitsPerSecond, int burst) {
+        this.permitsPerSecond = permitsPerSecond;
+        this.nanosPerPermit = permitsPerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond) : 0;
+        this.burstNanos = nanosPerPermit * (Math.max(burst, 1) - 1);
+        this.nextFreeSlot = new AtomicLong(System.nanoTime() - burstNanos);
+    }
+
+    public boolean isUnlimited() {
+        return nanosPerPermit == 0;
+    }
+
+    /**
+     * Waits for a permit. Returns early, with the interrupt flag still set, if the thread is interrupted.
+     */
+    public void acquire() {
+        if (isUnlimited()) {
+            return;
+        }
+        long slot = reserve(System.nanoTime());
+        long wait;
+        while ((wait = slot - System.nanoTime()) > 0 && !Thread.currentThread().isInterrupted()) {
+            LockSupport.parkNanos(this, wait);
+        }
+    }
+
+    private long reserve(long now) {
+        while (true) {
+            long next = nextFreeSlot.get();
+            // unused permits only build up to the burst size
+            long slot = Math.max(next, now - burstNanos);
+            if (nextFreeSlot.compareAndSet(next, slot + nanosPerPermit)) {
+                return slot;
+            }
+        }
+    }
+}
@@ -4,37 +4,71 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.annotation.DirtiesContext;
 import uk.gov.hmcts.reform.ccd.client.model.CaseDetails;
+import uk.gov.hmcts.reform.domain.exception.CcdUnavailableException;
+import uk.gov.hmcts.reform.migration.auth.UserTokenProvider;
 import uk.gov.hmcts.reform.migration.ccd.CoreCaseDataService;
+import uk.gov.hmcts.reform.migration.checkpoint.CheckpointStore;
+import uk.gov.hmcts.reform.migration.metrics.MigrationMetrics;
+import uk.gov.hmcts.reform.migration.query.AcceptanceQueries;
 import uk.gov.hmcts.reform.migration.query.BooleanQuery;
 import uk.gov.hmcts.reform.migration.query.EsQuery;
 import uk.gov.hmcts.reform.migration.query.ExistsQuery;
 import uk.gov.hmcts.reform.migration.query.Filter;
+import uk.gov.hmcts.reform.migration.query.QueryFingerprint;
+import uk.gov.hmcts.reform.migration.query.ReferenceSlices;
 import uk.gov.hmcts.reform.migration.repository.ElasticSearchRepository;
-import uk.gov.hmcts.reform.migration.repository.IdamRepository;
-
+import uk.gov.hmcts.reform.migration.results.ResultStore;
+import uk.gov.hmcts.reform.migration.retry.RetryPolicy;
+import uk.gov.hmcts.reform.migration.throttling.AdaptiveConcurrencyLimiter;
+import uk.gov.hmcts.reform.migration.throttling.CircuitBreaker;
+import uk.gov.hmcts.reform.migration.throttling.ConcurrencyLimiter;
+import uk.gov.hmcts.reform.migration.throttling.RateLimits;
+import uk.gov.hmcts.reform.migration.throttling.TokenBucketRateLimiter;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.stream.LongStream;
+import java.util.zip.GZIPOutputStream;
 
 import static java.util.stream.Collectors.toList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static uk.gov.hmcts.reform.migration.CaseMigrationProcessor.EVENT_DESCRIPTION;
 import static uk.gov.hmcts.reform.migration.CaseMigrationProcessor.EVENT_ID;
 import static uk.gov.hmcts.reform.migration.CaseMigrationProcessor.EVENT_SUMMARY;
+import static uk.gov.hmcts.reform.migration.repository.ElasticSearchRepository.SORT_BY_REF;
+import static uk.gov.hmcts.reform.migration.repository.ElasticSearchRepository.SORT_BY_REF_ASC;
 
 
 @ExtendWith(MockitoExtension.class)
@@ -50,6 +84,22 @@ class CaseMigrationProcessorTest {
 
     private static final int DEFAUT_QUERY_SIZE = 10;
     private static final int DEFAULT_THREAD_LIMIT = 8;
+    private static final int PREFETCH_DEPTH = 2;
+    private static final int ES_SLICES = 1;
+    private static final long FIRST_REFERENCE = 1_600_000_000_000_000L;
+    private static final RetryPolicy RETRY_TWICE = (failure, attempts, elapsed) ->
+        attempts < 3 ? Optional.of(Duration.ofMillis(10)) : Optional.empty();
+    private static final MigrationSettings SETTINGS = MigrationSettings.builder()
+        .migrationId(MIGRATION_ID)
+        .jurisdiction(CASE_JURISDICTION)
+        .caseType(CASE_TYPE)
+        .querySize(DEFAUT_QUERY_SIZE)
+        .prefetchDepth(PREFETCH_DEPTH)
+        .slices(ES_SLICES)
+        .threadLimit(DEFAULT_THREAD_LIMIT)
+        .executorMode(ExecutorMode.FORK_JOIN)
+        .timeout(300)
+        .build();
 
 
     private CaseMigrationProcessor caseMigrationProcessor;
@@ -61,7 +111,7 @@ class CaseMigrationProcessorTest {
     private ElasticSearchRepository elasticSearchRepository;
 
     @Mock
-    private IdamRepository idamRepository;
+    private UserTokenProvider userTokenProvider;
 
     @Captor
     ArgumentCaptor<CaseDetails> caseDetailsArgumentCaptor;
@@ -74,25 +124,15 @@ class CaseMigrationProcessorTest {
 
     @BeforeEach
     void setUp() {
-        when(idamRepository.generateUserToken()).thenReturn(USER_TOKEN);
-        caseMigrationProcessor = new CaseMigrationProcessor(coreCaseDataService,
-            elasticSearchRepository,
-            idamRepository,
-            DEFAUT_QUERY_SIZE,
-            DEFAULT_THREAD_LIMIT,
-            0,
-            MIGRATION_ID,
-            CASE_JURISDICTION,
-            CASE_TYPE,
-            false,
-            300);
+        lenient().when(userTokenProvider.getToken()).thenReturn(USER_TOKEN);
+        caseMigrationProcessor = processor().build();
     }
 
     @Test
     void shouldMigrateCasesOfACaseTypeByParallelProcessing() throws InterruptedException {
-        when(idamRepository.generateUserToken()).thenReturn(USER_TOKEN);
         List<CaseDetails> cases = createCaseDetails(1,2);
-        when(elasticSearchRepository.search(USER_TOKEN, CASE_TYPE, QUERY, DEFAUT_QUERY_SIZE, null))
+        when(elasticSearchRepository.search(USER_TOKEN, CASE_TYPE, QUERY, DEFAUT_QUERY_SIZE, null,
+            List.of()))
             .thenReturn(cases);
         when(elasticSearchRepository.searchResultsSize(USER_TOKEN, CASE_TYPE, QUERY)).thenReturn(2);
         caseMigrationProcessor.migrateQuery(QUERY);
@@ -110,6 +150,61 @@ class CaseMigrationProcessorTest {
             .contains(1L, 2L);
     }
 
+    private ProcessorFixture processor() {
+        return new ProcessorFixture();
+    }
+
+    /**
+     * Builds a processor on the mocks with nothing limiting, retrying or recording it, each test overrides only what
+     * it is about.
+     */
+    private final class ProcessorFixture {
+        private ConcurrencyLimiter concurrencyLimiter = ConcurrencyLimiter.NONE;
+        private CircuitBreaker circuitBreaker = CircuitBreaker.NONE;
+        private RateLimits rateLimits = RateLimits.NONE;
+        private CheckpointStore checkpointStore = new CheckpointStore("");
+        private ResultStore resultStore = new ResultStore("", false);
+        private RetryPolicy retryPolicy = RetryPolicy.NONE;
+        private final MigrationSettings.MigrationSettingsBuilder settings = SETTINGS.toBuilder();
+
+        ProcessorFixture limitedBy(ConcurrencyLimiter concurrencyLimiter, CircuitBreaker circuitBreaker) {
+            this.concurrencyLimiter = concurrencyLimiter;
+            this.circuitBreaker = circuitBreaker;
+            return this;
+        }
+
+        ProcessorFixture rateLimits(RateLimits rateLimits) {
+            this.rateLimits = rateLimits;
+            return this;
+        }
+
+        ProcessorFixture checkpointingTo(Path checkpointDir) {
+            this.checkpointStore = new CheckpointStore(checkpointDir.toString());
+            return this;
+        }
+
+        ProcessorFixture resultsIn(Path resultDir) {
+            this.resultStore = new ResultStore(resultDir.toString(), false);
+            return this;
+        }
+
+        ProcessorFixture retrying(RetryPolicy retryPolicy) {
+            this.retryPolicy = retryPolicy;
+            return this;
+        }
+
+        ProcessorFixture settings(Consumer<MigrationSettings.MigrationSettingsBuilder> overrides) {
+            overrides.accept(settings);
+            return this;
+        }
+
+        CaseMigrationProcessor build() {
+            return new CaseMigrationProcessor(coreCaseDataService, elasticSearchRepository, userTokenProvider,
+                concurrencyLimiter, circuitBreaker, rateLimits, checkpointStore, resultStore, MigrationMetrics.noop(),
+                retryPolicy, settings.build());
+        }
+    }
+
     private List<CaseDetails> createCaseDetails(int start, int count) {
         return LongStream.range(start, start + count)
             .mapToObj(counter -> CaseDetails.builder()
@@ -121,12 +216,12 @@ class CaseMigrationProcessorTest {
 
     @Test
     void shouldMigrateCasesOfACaseType() {
-        when(idamRepository.generateUserToken()).thenReturn(USER_TOKEN);
         CaseDetails details = mock(CaseDetails.class);
         when(details.getId()).thenReturn(1677777777L);
         List<CaseDetails> caseDetails = new ArrayList<>();
         caseDetails.add(details);
-        when(elasticSearchRepository.search(USER_TOKEN, CASE_TYPE, QUERY, DEFAUT_QUERY_SIZE, null))
+        when(elasticSearchRepository.search(USER_TOKEN, CASE_TYPE, QUERY, DEFAUT_QUERY_SIZE, null,
+            List.of()))
             .thenReturn(caseDetails);
         when(elasticSearchRepository.searchResultsSize(USER_TOKEN, CASE_TYPE, QUERY)).thenReturn(1);
 
@@ -148,7 +243,6 @@ class CaseMigrationProcessorTest {
 
     @Test
     void shouldMigrateOnlyLimitedNumberOfCases() {
-        when(idamRepository.generateUserToken()).thenReturn(USER_TOKEN);
         CaseDetails details = mock(CaseDetails.class);
         when(details.getId()).thenReturn(1L);
         CaseDetails details1 = mock(CaseDetails.class);
@@ -156,7 +250,8 @@ class CaseMigrationProcessorTest {
         List<CaseDetails> caseDetails = new ArrayList<>();
         caseDetails.add(details);
         caseDetails.add(details1);
-        when(elasticSearchRepository.search(USER_TOKEN, CASE_TYPE, QUERY, DEFAUT_QUERY_SIZE, null))
+        when(elasticSearchRepository.search(USER_TOKEN, CASE_TYPE, QUERY, DEFAUT_QUERY_SIZE, null,
+            List.of()))
             .thenReturn(caseDetails);
         when(elasticSearchRepository.searchResultsSize(USER_TOKEN, CASE_TYPE, QUERY)).thenReturn(2);
 
@@ -179,41 +274,20 @@ class CaseMigrationProcessorTest {
 
     @Test
     void shouldThrowExceptionWhenCaseTypeIsNull() {
-        caseMigrationProcessor = new CaseMigrationProcessor(coreCaseDataService,
-            elasticSearchRepository,
-            idamRepository,
-            10,
-            DEFAULT_THREAD_LIMIT,
-            0,
-            "Test",
-            CASE_JURISDICTION,
-            null,
-            false,
-            300);
+        caseMigrationProcessor = processor().settings(settings -> settings.migrationId("Test").caseType(null)).build();
         assertThatThrownBy(() -> caseMigrationProcessor.migrateQuery(BooleanQuery.builder().build()))
             .isInstanceOf(NullPointerException.class);
     }
 
     @Test
     void shouldThrowExceptionWhenQueryIsNull() {
-        caseMigrationProcessor = new CaseMigrationProcessor(coreCaseDataService,
-            elasticSearchRepository,
-            idamRepository,
-            10,
-            DEFAULT_THREAD_LIMIT,
-            0,
-            "Test",
-            CASE_JURISDICTION,
-            CASE_TYPE,
-            false,
-            300);
+        caseMigrationProcessor = processor().settings(settings -> settings.migrationId("Test")).build();
         assertThatThrownBy(() -> caseMigrationProcessor.migrateQuery(null))
             .isInstanceOf(NullPointerException.class);
     }
 
     @Test
     void shouldTimeoutIfSet() {
-        when(idamRepository.generateUserToken()).thenReturn(USER_TOKEN);
         CaseDetails details = mock(CaseDetails.class);
         when(details.getId()).thenReturn(1L);
         CaseDetails details1 = mock(CaseDetails.class);
@@ -222,20 +296,18 @@ class CaseMigrationProcessorTest {
         caseDetails.add(details);
         caseDetails.add(details1);
 
-        caseMigrationProcessor = new CaseMigrationProcessor(coreCaseDataService,
-            elasticSearchRepository,
-            idamRepository,
-            DEFAUT_QUERY_SIZE,
-            1,                  // single thread - one migration at a time
-            20,                 // 20 seconds between each migration
-            MIGRATION_ID,
-            CASE_JURISDICTION,
-            CASE_TYPE,
-            false,
-            10);                // timeout in 10 seconds, should only migrate one case
+        caseMigrationProcessor = processor()
+            .rateLimits(new RateLimits(new TokenBucketRateLimiter(1.0 / 20, 1),   // 20 seconds between each migration
+                TokenBucketRateLimiter.UNLIMITED,
+                TokenBucketRateLimiter.UNLIMITED))
+            .settings(settings -> settings
+                .threadLimit(1)     // single thread - one migration at a time
+                .timeout(10))       // timeout in 10 seconds, should only migrate one case
+            .build();
 
 
-        when(elasticSearchRepository.search(USER_TOKEN, CASE_TYPE, QUERY, DEFAUT_QUERY_SIZE, null))
+        when(elasticSearchRepository.search(USER_TOKEN, CASE_TYPE, QUERY, DEFAUT_QUERY_SIZE, null,
+            List.of()))
             .thenReturn(caseDetails);
         when(elasticSearchRepository.searchResultsSize(USER_TOKEN, CASE_TYPE, QUERY)).thenReturn(2);
 
@@ -258,19 +330,216 @@ class CaseMigrationProcessorTest {
             .containsExactly(1L);
     }
 
+    @Test
+    void shouldMigrateCasesFromEveryReferenceSlice() {
+        caseMigrationProcessor = processor().settings(settings -> settings.slices(2)).build();
+        List<EsQuery> slices = ReferenceSlices.slice(QUERY, 1, 4, 2);
+
+        when(elasticSearchRepository.searchResultsSize(USER_TOKEN, CASE_TYPE, QUERY)).thenReturn(4);
+        when(elasticSearchRepository.findReference(USER_TOKEN, CASE_TYPE, QUERY, SORT_BY_REF_ASC))
+            .thenReturn(Optional.of(1L));
+        when(elasticSearchRepository.findReference(USER_TOKEN, CASE_TYPE, QUERY, SORT_BY_REF))
+            .thenReturn(Optional.of(4L));
+        when(elasticSearchRepository.search(USER_TOKEN, CASE_TYPE, slices.get(0), DEFAUT_QUERY_SIZE, null,
+            List.of()))
+            .thenReturn(createCaseDetails(1, 2));
+        when(elasticSearchRepository.search(USER_TOKEN, CASE_TYPE, slices.get(1), DEFAUT_QUERY_SIZE, null,
+            List.of()))
+            .thenReturn(createCaseDetails(3, 2));
+
+        caseMigrationProcessor.migrateQuery(QUERY);
+
+        verify(coreCaseDataService, times(4))
+            .update(eq(USER_TOKEN),
+                eq(EVENT_ID),
+                eq(EVENT_SUMMARY),
+                eq(EVENT_DESCRIPTION),
+                eq(CASE_TYPE),
+                caseDetailsArgumentCaptor.capture(),
+                eq(MIGRATION_ID));
+
+        assertThat(caseDetailsArgumentCaptor.getAllValues())
+            .extracting(CaseDetails::getId)
+            .containsExactlyInAnyOrder(1L, 2L, 3L, 4L);
+    }
+
+    @Test
+    void shouldScanFromTheTopAgainOnceARunHasCompleted(@TempDir Path checkpointDir) {
+        when(elasticSearchRepository.search(USER_TOKEN, CASE_TYPE, QUERY, DEFAUT_QUERY_SIZE, null, List.of()))
+            .thenReturn(createCaseDetails(1, 2));
+        when(elasticSearchRepository.searchResultsSize(USER_TOKEN, CASE_TYPE, QUERY)).thenReturn(2);
+
+        processor().checkpointingTo(checkpointDir).build().migrateQuery(QUERY);
+        processor().checkpointingTo(checkpointDir).build().migrateQuery(QUERY);
+
+        // the second run neither resumes after the first one's cursor nor treats its cases as done
+        verify(elasticSearchRepository, times(2))
+            .search(USER_TOKEN, CASE_TYPE, QUERY, DEFAUT_QUERY_SIZE, null, List.of());
+        verify(coreCaseDataService, times(4))
+            .update(eq(USER_TOKEN),
+                eq(EVENT_ID),
+                eq(EVENT_SUMMARY),
+                eq(EVENT_DESCRIPTION),
+                eq(CASE_TYPE),
+                any(),
+                eq(MIGRATION_ID));
+        assertThat(checkpointDir.resolve(MIGRATION_ID + ".checkpoint")).doesNotExist();
+    }
+
+    @Test
+    void shouldMigrateACaseOnlyOnceWhenEsReturnsItOnTwoPages() {
+        // case 2 was modified mid scan and came back again on the following page
+        when(elasticSearchRepository.search(USER_TOKEN, CASE_TYPE, QUERY, DEFAUT_QUERY_SIZE, null, List.of()))
+            .thenReturn(createCaseDetails(1, 2));
+        when(elasticSearchRepository.search(USER_TOKEN, CASE_TYPE, QUERY, DEFAUT_QUERY_SIZE, "2", List.of()))
+            .thenReturn(createCaseDetails(2, 2));
+        when(elasticSearchRepository.searchResultsSize(USER_TOKEN, CASE_TYPE, QUERY)).thenReturn(3);
+
+        caseMigrationProcessor.migrateQuery(QUERY);
+
+        verify(coreCaseDataService, times(3))
+            .update(eq(USER_TOKEN),
+                eq(EVENT_ID),
+                eq(EVENT_SUMMARY),
+                eq(EVENT_DESCRIPTION),
+                eq(CASE_TYPE),
+                caseDetailsArgumentCaptor.capture(),
+                eq(MIGRATION_ID));
+        assertThat(caseDetailsArgumentCaptor.getAllValues())
+            .extracting(CaseDetails::getId)
+            .containsExactlyInAnyOrder(1L, 2L, 3L);
+        assertThat(caseMigrationProcessor.getMigratedCases().size()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldResumeEachSliceFromItsCursorWithinTheSavedBounds(@TempDir Path checkpointDir) throws IOException {
+        // the interrupted run sliced between 1 and 4 and got through case 1, cases up to 6 have been created since
+        String queryKey = QueryFingerprint.of(QUERY);
+        Files.writeString(checkpointDir.resolve(MIGRATION_ID + ".checkpoint"),
+            "R " + queryKey + " 1 4\nM 1\nC " + queryKey + "-0of2 1\n");
+        caseMigrationProcessor = processor()
+            .checkpointingTo(checkpointDir)
+            .settings(settings -> settings.slices(2))
+            .build();
+        List<EsQuery> slices = ReferenceSlices.slice(QUERY, 1, 4, 2);
+        when(elasticSearchRepository.searchResultsSize(USER_TOKEN, CASE_TYPE, QUERY)).thenReturn(6);
+        when(elasticSearchRepository.search(USER_TOKEN, CASE_TYPE, slices.get(0), DEFAUT_QUERY_SIZE, "1",
+            List.of()))
+            .thenReturn(createCaseDetails(2, 1));
+        when(elasticSearchRepository.search(USER_TOKEN, CASE_TYPE, slices.get(1), DEFAUT_QUERY_SIZE, null,
+            List.of()))
+            .thenReturn(createCaseDetails(3, 4));
+
+        caseMigrationProcessor.migrateQuery(QUERY);
+
+        verify(elasticSearchRepository, never()).findReference(any(), any(), any(), any());
+        verify(coreCaseDataService, times(5))
+            .update(eq(USER_TOKEN),
+                eq(EVENT_ID),
+                eq(EVENT_SUMMARY),
+                eq(EVENT_DESCRIPTION),
+                eq(CASE_TYPE),
+                caseDetailsArgumentCaptor.capture(),
+                eq(MIGRATION_ID));
+        assertThat(caseDetailsArgumentCaptor.getAllValues())
+            .extracting(CaseDetails::getId)
+            .containsExactlyInAnyOrder(2L, 3L, 4L, 5L, 6L);
+    }
+
+    @Test
+    void shouldSkipCasesRejectedOnTheirEsDataWithoutCallingCcd() {
+        List<CaseDetails> cases = createCaseDetails(1, 2);
+        when(coreCaseDataService.getPrefetchFields(MIGRATION_ID)).thenReturn(List.of("data.court"));
+        when(coreCaseDataService.acceptsPrefetched(cases.get(0))).thenReturn(true);
+        when(coreCaseDataService.acceptsPrefetched(cases.get(1))).thenReturn(false);
+        when(elasticSearchRepository.searchResultsSize(USER_TOKEN, CASE_TYPE, QUERY)).thenReturn(2);
+        when(elasticSearchRepository.search(USER_TOKEN, CASE_TYPE, QUERY, DEFAUT_QUERY_SIZE, null,
+            List.of("data.court")))
+            .thenReturn(cases);
+
+        caseMigrationProcessor.migrateQuery(QUERY);
+
+        verify(coreCaseDataService, times(1))
+            .update(eq(USER_TOKEN),
+                eq(EVENT_ID),
+                eq(EVENT_SUMMARY),
+                eq(EVENT_DESCRIPTION),
+                eq(CASE_TYPE),
+                caseDetailsArgumentCaptor.capture(),
+                eq(MIGRATION_ID));
+        assertThat(caseDetailsArgumentCaptor.getValue().getId()).isEqualTo(1L);
+        assertThat(caseMigrationProcessor.getSkippedCases().toArray()).containsExactly(2L);
+    }
+
+    @Test
+    void shouldOnlyMigrateCasesMatchingTheAcceptanceQuery() {
+        EsQuery acceptance = ExistsQuery.of("data.dfjArea");
+        EsQuery accepted = AcceptanceQueries.accepted(QUERY, acceptance);
+        EsQuery rejected = AcceptanceQueries.rejected(QUERY, acceptance);
+        when(coreCaseDataService.getAcceptanceQuery(MIGRATION_ID)).thenReturn(Optional.of(acceptance));
+        when(elasticSearchRepository.searchResultsSize(USER_TOKEN, CASE_TYPE, QUERY)).thenReturn(4);
+        when(elasticSearchRepository.search(USER_TOKEN, CASE_TYPE, accepted, DEFAUT_QUERY_SIZE, null, List.of()))
+            .thenReturn(createCaseDetails(1, 2));
+        when(elasticSearchRepository.search(USER_TOKEN, CASE_TYPE, rejected, DEFAUT_QUERY_SIZE, null, List.of()))
+            .thenReturn(createCaseDetails(3, 2));
+        when(elasticSearchRepository.search(USER_TOKEN, CASE_TYPE, rejected, DEFAUT_QUERY_SIZE, "4", List.of()))
+            .thenReturn(List.of());
+
+        caseMigrationProcessor.migrateQuery(QUERY);
+
+        verify(coreCaseDataService, times(2))
+            .update(eq(USER_TOKEN),
+                eq(EVENT_ID),
+                eq(EVENT_SUMMARY),
+                eq(EVENT_DESCRIPTION),
+                eq(CASE_TYPE),
+                caseDetailsArgumentCaptor.capture(),
+                eq(MIGRATION_ID));
+        assertThat(caseDetailsArgumentCaptor.getAllValues())
+            .extracting(CaseDetails::getId)
+            .containsExactlyInAnyOrder(1L, 2L);
+        assertThat(caseMigrationProcessor.getSkippedCases().toArray()).containsExactly(3L, 4L);
+    }
+
+    @Test
+    void shouldCountTheRejectedCasesWhileMigratingTheAcceptedOnes(@TempDir Path checkpointDir) throws IOException {
+        EsQuery acceptance = ExistsQuery.of("data.dfjArea");
+        EsQuery accepted = AcceptanceQueries.accepted(QUERY, acceptance);
+        EsQuery rejected = AcceptanceQueries.rejected(QUERY, acceptance);
+        CountDownLatch firstUpdate = new CountDownLatch(1);
+        AtomicBoolean updatedDuringRejectedScan = new AtomicBoolean();
+        when(coreCaseDataService.getAcceptanceQuery(MIGRATION_ID)).thenReturn(Optional.of(acceptance));
+        when(elasticSearchRepository.searchResultsSize(USER_TOKEN, CASE_TYPE, QUERY)).thenReturn(4);
+        when(elasticSearchRepository.search(USER_TOKEN, CASE_TYPE, accepted, DEFAUT_QUERY_SIZE, null, List.of()))
+            .thenReturn(createCaseDetails(1, 2));
+        when(elasticSearchRepository.search(USER_TOKEN, CASE_TYPE, rejected, DEFAUT_QUERY_SIZE, null, List.of()))
+            .thenAnswer(invocation -> {
+                // a scan run before loading would never see an update here
+                updatedDuringRejectedScan.set(firstUpdate.await(10, TimeUnit.SECONDS));
+                return createCaseDetails(3, 2);
+            });
+        when(coreCaseDataService.update(eq(USER_TOKEN), eq(EVENT_ID), eq(EVENT_SUMMARY), eq(EVENT_DESCRIPTION),
+            eq(CASE_TYPE), any(), eq(MIGRATION_ID)))
+            .thenAnswer(invocation -> {
+                firstUpdate.countDown();
+                return invocation.getArgument(5);
+            });
+        caseMigrationProcessor = processor().checkpointingTo(checkpointDir).build();
+
+        caseMigrationProcessor.migrateQuery(QUERY);
+
+        assertThat(updatedDuringRejectedScan).isTrue();
+        assertThat(caseMigrationProcessor.getMigratedCases().toArray()).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(caseMigrationProcessor.getSkippedCases().toArray()).containsExactlyInAnyOrder(3L, 4L);
+        // the rejected cases were never submitted, so they are left out of the checkpoint
+        assertThat(Files.readAllLines(checkpointDir.resolve(MIGRATION_ID + ".checkpoint.done")))
+            .contains("M 1", "M 2")
+            .noneMatch(line -> line.startsWith("S "));
+    }
+
     @Test
     void shouldThrowExceptionWhenMigrationIdIsNull() {
-        caseMigrationProcessor = new CaseMigrationProcessor(coreCaseDataService,
-            elasticSearchRepository,
-            idamRepository,
-            10,
-            DEFAULT_THREAD_LIMIT,
-            0,
-            null,
-            CASE_JURISDICTION,
-            CASE_TYPE,
-            false,
-            300);
+        caseMigrationProcessor = processor().settings(settings -> settings.migrationId(null)).build();
         assertThatThrownBy(() -> caseMigrationProcessor.migrateQuery(BooleanQuery.builder().build()))
             .isInstanceOf(NullPointerException.class);
     }
@@ -294,5 +563,269 @@ class CaseMigrationProcessorTest {
                     eq(MIGRATION_ID));
         }
 
+        @Test
+        void shouldMigrateACaseListedTwiceOnlyOnce() {
+            caseMigrationProcessor.migrateList(List.of("12345", "67890", "12345"));
+
+            verify(coreCaseDataService, times(2))
+                .update(eq(USER_TOKEN),
+                    eq(EVENT_ID),
+                    eq(EVENT_SUMMARY),
+                    eq(EVENT_DESCRIPTION),
+                    eq(CASE_TYPE),
+                    any(),
+                    eq(MIGRATION_ID));
+        }
+
+        @Test
+        void shouldSkipListEntriesThatAreNotCaseReferences() {
+            caseMigrationProcessor.migrateList(List.of("12345", "0", "abc", "0000000000000000", "67890"));
+
+            verify(coreCaseDataService, times(2))
+                .update(eq(USER_TOKEN),
+                    eq(EVENT_ID),
+                    eq(EVENT_SUMMARY),
+                    eq(EVENT_DESCRIPTION),
+                    eq(CASE_TYPE),
+                    caseDetailsArgumentCaptor.capture(),
+                    eq(MIGRATION_ID));
+            assertThat(caseDetailsArgumentCaptor.getAllValues())
+                .extracting(CaseDetails::getId)
+                .containsExactlyInAnyOrder(12345L, 67890L);
+            assertThat(caseMigrationProcessor.getFailedCases().isEmpty()).isTrue();
+        }
+
+        @Test
+        void shouldMigrateMoreCasesThanTheQueueCanHold() {
+            List<String> caseIds = LongStream.rangeClosed(1, 100)
+                .mapToObj(Long::toString)
+                .collect(toList());
+
+            caseMigrationProcessor.migrateList(caseIds);
+
+            verify(coreCaseDataService, times(100))
+                .update(eq(USER_TOKEN),
+                    eq(EVENT_ID),
+                    eq(EVENT_SUMMARY),
+                    eq(EVENT_DESCRIPTION),
+                    eq(CASE_TYPE),
+                    caseDetailsArgumentCaptor.capture(),
+                    eq(MIGRATION_ID));
+
+            assertThat(caseDetailsArgumentCaptor.getAllValues())
+                .extracting(CaseDetails::getId)
+                .containsExactlyInAnyOrderElementsOf(LongStream.rangeClosed(1, 100).boxed().collect(toList()));
+        }
+
+        @Test
+        void shouldMigrateCasesOnVirtualThreads() {
+            caseMigrationProcessor = processor()
+                .settings(settings -> settings.executorMode(ExecutorMode.VIRTUAL))
+                .build();
+            List<String> caseIds = LongStream.rangeClosed(1, 100)
+                .mapToObj(Long::toString)
+                .collect(toList());
+
+            caseMigrationProcessor.migrateList(caseIds);
+
+            verify(coreCaseDataService, times(100))
+                .update(eq(USER_TOKEN),
+                    eq(EVENT_ID),
+                    eq(EVENT_SUMMARY),
+                    eq(EVENT_DESCRIPTION),
+                    eq(CASE_TYPE),
+                    any(),
+                    eq(MIGRATION_ID));
+            assertThat(caseMigrationProcessor.getMigratedCases().size()).isEqualTo(100);
+            assertThat(caseMigrationProcessor.getFailedCases().isEmpty()).isTrue();
+        }
+
+        @Test
+        void shouldMigrateCasesListedInAGzippedFile(@TempDir Path dir) throws IOException {
+            Path file = dir.resolve("cases.txt.gz");
+            try (Writer writer = new OutputStreamWriter(new GZIPOutputStream(Files.newOutputStream(file)),
+                StandardCharsets.US_ASCII)) {
+                for (long caseId = FIRST_REFERENCE; caseId < FIRST_REFERENCE + 100; caseId++) {
+                    writer.write(caseId + "\n");
+                }
+            }
+
+            caseMigrationProcessor.migrateFile(file);
+
+            verify(coreCaseDataService, times(100))
+                .update(eq(USER_TOKEN),
+                    eq(EVENT_ID),
+                    eq(EVENT_SUMMARY),
+                    eq(EVENT_DESCRIPTION),
+                    eq(CASE_TYPE),
+                    caseDetailsArgumentCaptor.capture(),
+                    eq(MIGRATION_ID));
+            assertThat(caseDetailsArgumentCaptor.getAllValues())
+                .extracting(CaseDetails::getId)
+                .containsExactlyInAnyOrderElementsOf(
+                    LongStream.range(FIRST_REFERENCE, FIRST_REFERENCE + 100).boxed().collect(toList()));
+        }
+
+        @Test
+        void shouldRetryAFailedCaseDuringTheRun() {
+            caseMigrationProcessor = processor().retrying(RETRY_TWICE).build();
+            AtomicInteger attempts = new AtomicInteger();
+            when(coreCaseDataService.update(eq(USER_TOKEN), eq(EVENT_ID), eq(EVENT_SUMMARY), eq(EVENT_DESCRIPTION),
+                eq(CASE_TYPE), any(), eq(MIGRATION_ID)))
+                .thenAnswer(invocation -> {
+                    CaseDetails caseDetails = invocation.getArgument(5);
+                    if (caseDetails.getId() == 2L && attempts.incrementAndGet() < 3) {
+                        throw new IllegalStateException("Conflict on case 2");
+                    }
+                    return caseDetails;
+                });
+
+            caseMigrationProcessor.migrateList(List.of("1", "2", "3"));
+
+            verify(coreCaseDataService, times(5))
+                .update(eq(USER_TOKEN), eq(EVENT_ID), eq(EVENT_SUMMARY), eq(EVENT_DESCRIPTION), eq(CASE_TYPE),
+                    any(), eq(MIGRATION_ID));
+            assertThat(caseMigrationProcessor.getMigratedCases().toArray()).containsExactlyInAnyOrder(1L, 2L, 3L);
+            assertThat(caseMigrationProcessor.getFailedCases().isEmpty()).isTrue();
+        }
+
+        @Test
+        void shouldFailACaseOnceItIsOutOfAttempts() {
+            caseMigrationProcessor = processor().retrying(RETRY_TWICE).build();
+            when(coreCaseDataService.update(eq(USER_TOKEN), eq(EVENT_ID), eq(EVENT_SUMMARY), eq(EVENT_DESCRIPTION),
+                eq(CASE_TYPE), any(), eq(MIGRATION_ID)))
+                .thenAnswer(invocation -> {
+                    CaseDetails caseDetails = invocation.getArgument(5);
+                    if (caseDetails.getId() == 2L) {
+                        throw new IllegalStateException("Conflict on case 2");
+                    }
+                    return caseDetails;
+                });
+
+            caseMigrationProcessor.migrateList(List.of("1", "2", "3"));
+
+            verify(coreCaseDataService, times(5))
+                .update(eq(USER_TOKEN), eq(EVENT_ID), eq(EVENT_SUMMARY), eq(EVENT_DESCRIPTION), eq(CASE_TYPE),
+                    any(), eq(MIGRATION_ID));
+            assertThat(caseMigrationProcessor.getMigratedCases().toArray()).containsExactlyInAnyOrder(1L, 3L);
+            assertThat(caseMigrationProcessor.getFailedCases().toArray()).containsExactly(2L);
+        }
+
+        @Test
+        void shouldFailACaseWhoseUpdateThrowsAnErrorAndCarryOn() {
+            // more failing cases than workers, so a worker lost to each one would leave nothing to run the rest
+            List<String> caseIds = LongStream.rangeClosed(1, DEFAULT_THREAD_LIMIT * 2L)
+                .mapToObj(Long::toString)
+                .collect(toList());
+            when(coreCaseDataService.update(eq(USER_TOKEN), eq(EVENT_ID), eq(EVENT_SUMMARY), eq(EVENT_DESCRIPTION),
+                eq(CASE_TYPE), any(), eq(MIGRATION_ID)))
+                .thenAnswer(invocation -> {
+                    CaseDetails caseDetails = invocation.getArgument(5);
+                    if (caseDetails.getId() % 2 == 0) {
+                        throw new AssertionError("Case is in an invalid state");
+                    }
+                    return caseDetails;
+                });
+
+            assertTimeoutPreemptively(Duration.ofSeconds(30), () -> caseMigrationProcessor.migrateList(caseIds));
+
+            assertThat(caseMigrationProcessor.getMigratedCases().size()).isEqualTo(DEFAULT_THREAD_LIMIT);
+            assertThat(caseMigrationProcessor.getFailedCases().toArray())
+                .containsExactlyInAnyOrder(LongStream.rangeClosed(1, DEFAULT_THREAD_LIMIT * 2L)
+                    .filter(caseId -> caseId % 2 == 0)
+                    .toArray());
+        }
+
+        @Test
+        void shouldHandBackTheConcurrencyPermitWhenTheUserTokenCannotBeFetched() {
+            caseMigrationProcessor = processor()
+                .limitedBy(new AdaptiveConcurrencyLimiter(1, 1, Duration.ofSeconds(10)), CircuitBreaker.NONE)
+                .build();
+            when(userTokenProvider.getToken())
+                .thenThrow(new IllegalStateException("IDAM is down"))
+                .thenReturn(USER_TOKEN);
+
+            // with a single permit, a leaked one would leave the second case waiting for it until the timeout
+            assertTimeoutPreemptively(Duration.ofSeconds(30),
+                () -> caseMigrationProcessor.migrateList(List.of("1", "2")));
+
+            assertThat(caseMigrationProcessor.getMigratedCases().size()).isEqualTo(1);
+            assertThat(caseMigrationProcessor.getFailedCases().size()).isEqualTo(1);
+        }
+
+        @Test
+        void shouldHoldBackCasesWhileCcdIsUnavailableRatherThanFailThem() {
+            AdaptiveConcurrencyLimiter concurrencyLimiter = new AdaptiveConcurrencyLimiter(1, 50,
+                Duration.ofSeconds(10));
+            CircuitBreaker circuitBreaker = mock(CircuitBreaker.class);
+            AtomicInteger rejections = new AtomicInteger();
+            doAnswer(invocation -> {
+                if (rejections.incrementAndGet() <= 20) {
+                    throw new CcdUnavailableException("Circuit open", Duration.ofMillis(1));
+                }
+                return new CircuitBreaker.Permit(0);
+            }).when(circuitBreaker).acquire();
+            caseMigrationProcessor = processor().limitedBy(concurrencyLimiter, circuitBreaker).build();
+
+            caseMigrationProcessor.migrateList(List.of("1", "2", "3"));
+
+            assertThat(caseMigrationProcessor.getMigratedCases().toArray()).containsExactlyInAnyOrder(1L, 2L, 3L);
+            assertThat(caseMigrationProcessor.getFailedCases().isEmpty()).isTrue();
+            verify(coreCaseDataService, times(3))
+                .update(eq(USER_TOKEN),
+                    eq(EVENT_ID),
+                    eq(EVENT_SUMMARY),
+                    eq(EVENT_DESCRIPTION),
+                    eq(CASE_TYPE),
+                    any(),
+                    eq(MIGRATION_ID));
+            // only the three calls that reached CCD grow the limit, the rejections are not taken as fast successes
+            assertThat(concurrencyLimiter.getLimit()).isEqualTo(2);
+        }
+
+        @Test
+        void shouldWriteTheOutcomeOfEveryCaseToTheResultFiles(@TempDir Path resultDir) throws IOException {
+            caseMigrationProcessor = processor().resultsIn(resultDir).build();
+            when(coreCaseDataService.update(eq(USER_TOKEN), eq(EVENT_ID), eq(EVENT_SUMMARY), eq(EVENT_DESCRIPTION),
+                eq(CASE_TYPE), any(), eq(MIGRATION_ID)))
+                .thenAnswer(invocation -> {
+                    CaseDetails caseDetails = invocation.getArgument(5);
+                    if (caseDetails.getId() % 2 == 0) {
+                        throw new IllegalStateException("Failed case " + caseDetails.getId());
+                    }
+                    return caseDetails;
+                });
+
+            caseMigrationProcessor.migrateList(List.of("1", "2", "3", "4"));
+
+            assertThat(Files.readAllLines(resultDir.resolve(MIGRATION_ID + "-migrated.txt")))
+                .containsExactlyInAnyOrder("1", "3");
+            assertThat(Files.readAllLines(resultDir.resolve(MIGRATION_ID + "-failed.txt")))
+                .containsExactlyInAnyOrder("2", "4");
+            assertThat(Files.readAllLines(resultDir.resolve(MIGRATION_ID + "-skipped.txt"))).isEmpty();
+        }
+
+        @Test
+        void shouldOnlyMigrateCasesMissingFromTheCheckpoint(@TempDir Path checkpointDir) throws IOException {
+            Files.writeString(checkpointDir.resolve(MIGRATION_ID + ".checkpoint"), "M 1\nS 3\n");
+            caseMigrationProcessor = processor().checkpointingTo(checkpointDir).build();
+
+            caseMigrationProcessor.migrateList(List.of("1", "2", "3"));
+
+            verify(coreCaseDataService, times(1))
+                .update(eq(USER_TOKEN),
+                    eq(EVENT_ID),
+                    eq(EVENT_SUMMARY),
+                    eq(EVENT_DESCRIPTION),
+                    eq(CASE_TYPE),
+                    caseDetailsArgumentCaptor.capture(),
+                    eq(MIGRATION_ID));
+            assertThat(caseDetailsArgumentCaptor.getValue().getId()).isEqualTo(2L);
+            // the run got through every case, so its checkpoint is moved aside rather than resumed next time
+            assertThat(checkpointDir.resolve(MIGRATION_ID + ".checkpoint")).doesNotExist();
+            assertThat(Files.readAllLines(checkpointDir.resolve(MIGRATION_ID + ".checkpoint.done")))
+                .containsExactly("M 1", "S 3", "M 2");
+        }
+
     }
 }
@@ -0,0 +1,54 @@
+package uk.gov.hmcts.reform.migration.auth;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import uk.gov.hmcts.reform.migration.metrics.MigrationMetrics;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CachedServiceTokenGeneratorTest {
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final MigrationMetrics metrics = new MigrationMetrics(registry);
+    private final AtomicInteger leases = new AtomicInteger();
+
+    private final CachedServiceTokenGenerator generator = new CachedServiceTokenGenerator(new RefreshingToken("s2s",
+        () -> "Bearer opaque-" + leases.incrementAndGet(),
+        new ObjectMapper(),
+        Duration.ofSeconds(300),
+        Duration.ofHours(1),
+        metrics.tokenHits("s2s"),
+        metrics.tokenRefreshes("s2s")));
+
+    @AfterEach
+    void tearDown() {
+        generator.shutdown();
+    }
+
+    @Test
+    void shouldLeaseOneTokenForEveryCaller() {
+        Set<String> tokens = ConcurrentHashMap.newKeySet();
+        try (ExecutorService executor = Executors.newFixedThreadPool(25)) {
+            for (int i = 0; i < 1_000; i++) {
+                executor.execute(() -> tokens.add(generator.generate()));
+            }
+        }
+
+        assertThat(tokens).containsExactly("Bearer opaque-1");
+        assertThat(leases.get()).isEqualTo(1);
+        assertThat(registry.get(MigrationMetrics.TOKEN_REFRESHES_COUNTER).tag("token", "s2s").counter().count())
+            .isEqualTo(1);
+        assertThat(registry.get(MigrationMetrics.TOKEN_HITS_COUNTER).tag("token", "s2s").counter().count())
+            .isEqualTo(999);
+    }
+}
@@ -0,0 +1,105 @@
+package uk.gov.hmcts.reform.migration.auth;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.hmcts.reform.migration.metrics.MigrationMetrics;
+import uk.gov.hmcts.reform.migration.repository.IdamRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+import static java.time.temporal.ChronoUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserTokenProviderTest {
+
+    private static final int REFRESH_AHEAD = 300;
+    private static final int DEFAULT_TTL = 3600;
+
+    @Mock
+    private IdamRepository idamRepository;
+
+    private UserTokenProvider userTokenProvider;
+
+    @BeforeEach
+    void setUp() {
+        userTokenProvider = new UserTokenProvider(idamRepository, new ObjectMapper(), MigrationMetrics.noop(),
+            REFRESH_AHEAD, DEFAULT_TTL);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userTokenProvider.shutdown();
+    }
+
+    @Test
+    void shouldReuseTheTokenUntilItExpires() {
+        String token = jwt(Instant.now().plusSeconds(3600));
+        when(idamRepository.generateUserToken()).thenReturn(token);
+
+        assertThat(userTokenProvider.getToken()).isEqualTo(token);
+        assertThat(userTokenProvider.getToken()).isEqualTo(token);
+
+        verify(idamRepository, times(1)).generateUserToken();
+    }
+
+    @Test
+    void shouldFetchANewTokenOnceTheCurrentOneHasExpired() {
+        String expired = jwt(Instant.now().minusSeconds(60));
+        String fresh = jwt(Instant.now().plusSeconds(3600));
+        when(idamRepository.generateUserToken()).thenReturn(expired, fresh);
+
+        assertThat(userTokenProvider.getToken()).isEqualTo(expired);
+        assertThat(userTokenProvider.getToken()).isEqualTo(fresh);
+
+        verify(idamRepository, times(2)).generateUserToken();
+    }
+
+    @Test
+    void shouldFetchANewTokenOnlyIfTheRejectedOneIsStillCurrent() {
+        String rejected = jwt(Instant.now().plusSeconds(3600));
+        String fresh = jwt(Instant.now().plusSeconds(3601));
+        when(idamRepository.generateUserToken()).thenReturn(rejected, fresh);
+
+        assertThat(userTokenProvider.getToken()).isEqualTo(rejected);
+        userTokenProvider.invalidate(rejected);
+        assertThat(userTokenProvider.getToken()).isEqualTo(fresh);
+        userTokenProvider.invalidate(rejected);
+        assertThat(userTokenProvider.getToken()).isEqualTo(fresh);
+
+        verify(idamRepository, times(2)).generateUserToken();
+    }
+
+    @Test
+    void shouldReadTheExpiryFromTheToken() {
+        Instant expiry = Instant.now().plusSeconds(1234).truncatedTo(SECONDS);
+
+        assertThat(userTokenProvider.expiryOf("Bearer " + jwt(expiry))).isEqualTo(expiry);
+    }
+
+    @Test
+    void shouldAssumeTheDefaultLifetimeForOpaqueTokens() {
+        Instant expected = Instant.now().plusSeconds(DEFAULT_TTL);
+
+        assertThat(userTokenProvider.expiryOf("Bearer opaque")).isCloseTo(expected, within(5, SECONDS));
+    }
+
+    private static String jwt(Instant expiry) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String header = encoder.encodeToString("{\"alg\":\"none\"}".getBytes(StandardCharsets.UTF_8));
+        String claims = encoder.encodeToString(("{\"exp\":" + expiry.getEpochSecond() + "}")
+            .getBytes(StandardCharsets.UTF_8));
+        return header + "." + claims + ".signature";
+    }
+}
@@ -0,0 +1,59 @@
+package uk.gov.hmcts.reform.migration.ccd;
+
+import feign.FeignException;
+import feign.Request;
+import feign.RetryableException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CcdFailureTest {
+
+    private static final Request REQUEST = Request.create(Request.HttpMethod.POST, "http://ccd/cases", Map.of(),
+        null, StandardCharsets.UTF_8, null);
+
+    @Test
+    void shouldClassifyByHttpStatus() {
+        assertThat(CcdFailure.classify(new FeignException.Conflict("conflict", REQUEST, null, Map.of())))
+            .isEqualTo(CcdFailure.CONFLICT);
+        assertThat(CcdFailure.classify(new FeignException.TooManyRequests("slow down", REQUEST, null, Map.of())))
+            .isEqualTo(CcdFailure.THROTTLED);
+        assertThat(CcdFailure.classify(new FeignException.BadGateway("bad gateway", REQUEST, null, Map.of())))
+            .isEqualTo(CcdFailure.SERVER_ERROR);
+        assertThat(CcdFailure.classify(new FeignException.Unauthorized("expired", REQUEST, null, Map.of())))
+            .isEqualTo(CcdFailure.UNAUTHORISED);
+        assertThat(CcdFailure.classify(new FeignException.UnprocessableEntity("invalid", REQUEST, null, Map.of())))
+            .isEqualTo(CcdFailure.CLIENT_ERROR);
+    }
+
+    @Test
+    void shouldClassifyIoFailuresAsTimeouts() {
+        RetryableException timeout = new RetryableException(-1, "Read timed out", Request.HttpMethod.POST,
+            (Long) null, REQUEST);
+
+        assertThat(CcdFailure.classify(timeout)).isEqualTo(CcdFailure.TIMEOUT);
+    }
+
+    @Test
+    void shouldLookThroughWrappingExceptions() {
+        RuntimeException wrapped = new RuntimeException(
+            new FeignException.ServiceUnavailable("down", REQUEST, null, Map.of()));
+
+        assertThat(CcdFailure.classify(wrapped)).isEqualTo(CcdFailure.SERVER_ERROR);
+    }
+
+    @Test
+    void shouldTreatAnythingElseAsOther() {
+        assertThat(CcdFailure.classify(new IllegalStateException("bug"))).isEqualTo(CcdFailure.OTHER);
+    }
+
+    @Test
+    void shouldOnlyTreatThrottlingServerErrorsAndTimeoutsAsOverload() {
+        assertThat(CcdFailure.values())
+            .filteredOn(CcdFailure::isOverload)
+            .containsExactlyInAnyOrder(CcdFailure.THROTTLED, CcdFailure.SERVER_ERROR, CcdFailure.TIMEOUT);
+    }
+}
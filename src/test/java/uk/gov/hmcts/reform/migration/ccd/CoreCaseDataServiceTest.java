@@ -1,5 +1,7 @@
 package uk.gov.hmcts.reform.migration.ccd;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -13,13 +15,17 @@ import uk.gov.hmcts.reform.ccd.client.model.Event;
 import uk.gov.hmcts.reform.ccd.client.model.StartEventResponse;
 import uk.gov.hmcts.reform.idam.client.IdamClient;
 import uk.gov.hmcts.reform.idam.client.models.UserDetails;
+import uk.gov.hmcts.reform.migration.metrics.MigrationMetrics;
 import uk.gov.hmcts.reform.migration.service.DataMigrationService;
+import uk.gov.hmcts.reform.migration.throttling.RateLimits;
 
 import java.util.LinkedHashMap;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static uk.gov.hmcts.reform.migration.service.DataMigrationService.MIGRATION_ID_KEY;
@@ -53,12 +59,17 @@ class CoreCaseDataServiceTest {
 
     CaseDataContent caseDataContent;
 
+    private MeterRegistry meterRegistry;
+
     @BeforeEach
     void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
         underTest = new CoreCaseDataService(idamClient,
             authTokenGenerator,
             coreCaseDataApi,
-            dataMigrationService);
+            dataMigrationService,
+            RateLimits.NONE,
+            new MigrationMetrics(meterRegistry));
     }
 
     @Test
@@ -133,6 +144,77 @@ class CoreCaseDataServiceTest {
             CASE_TYPE, String.valueOf(CASE_ID), true, caseDataContent);
     }
 
+    @Test
+    void shouldTimeEveryPhaseOfTheUpdate() {
+        UserDetails userDetails = UserDetails.builder()
+            .id(USER_ID)
+            .build();
+        CaseDetails caseDetails = createCaseDetails();
+        setupMocks(userDetails, caseDetails.getData());
+
+        underTest.update(AUTH_TOKEN, EVENT_ID, EVENT_SUMMARY, EVENT_DESC, CASE_TYPE, caseDetails, DFPL_1124);
+
+        assertThat(phaseCount("idam_user")).isEqualTo(1);
+        assertThat(phaseCount("s2s")).isEqualTo(2);
+        assertThat(phaseCount("start_event")).isEqualTo(1);
+        assertThat(phaseCount("transform")).isEqualTo(1);
+        assertThat(phaseCount("submit_event")).isEqualTo(1);
+    }
+
+    @Test
+    void shouldTimeAFailedPhaseAsAnError() {
+        when(idamClient.getUserDetails(AUTH_TOKEN)).thenReturn(UserDetails.builder().id(USER_ID).build());
+        when(authTokenGenerator.generate()).thenReturn(AUTH_TOKEN);
+        when(coreCaseDataApi.startEventForCaseWorker(AUTH_TOKEN, AUTH_TOKEN, USER_ID,
+            null, CASE_TYPE, String.valueOf(CASE_ID), EVENT_ID))
+            .thenThrow(new IllegalStateException("CCD is down"));
+        CaseDetails caseDetails = createCaseDetails();
+
+        assertThatThrownBy(() -> underTest.update(AUTH_TOKEN, EVENT_ID, EVENT_SUMMARY, EVENT_DESC, CASE_TYPE,
+            caseDetails, DFPL_1124))
+            .isInstanceOf(IllegalStateException.class);
+
+        assertThat(meterRegistry.get(MigrationMetrics.PHASE_TIMER)
+            .tags("phase", "start_event", "outcome", "error")
+            .timer().count()).isEqualTo(1);
+    }
+
+    private long phaseCount(String phase) {
+        return meterRegistry.get(MigrationMetrics.PHASE_TIMER)
+            .tags("phase", phase, "outcome", "success")
+            .timer()
+            .count();
+    }
+
+    @Test
+    void shouldLookUpUserDetailsOncePerToken() {
+        UserDetails userDetails = UserDetails.builder()
+            .id(USER_ID)
+            .build();
+        when(idamClient.getUserDetails(AUTH_TOKEN)).thenReturn(userDetails);
+
+        assertThat(underTest.getUserDetails(AUTH_TOKEN)).isEqualTo(userDetails);
+        assertThat(underTest.getUserDetails(AUTH_TOKEN)).isEqualTo(userDetails);
+
+        verify(idamClient, times(1)).getUserDetails(AUTH_TOKEN);
+    }
+
+    @Test
+    void shouldLookUpUserDetailsAgainWhenTheTokenChanges() {
+        String newToken = "Bearer newtoken";
+        UserDetails userDetails = UserDetails.builder()
+            .id(USER_ID)
+            .build();
+        when(idamClient.getUserDetails(AUTH_TOKEN)).thenReturn(userDetails);
+        when(idamClient.getUserDetails(newToken)).thenReturn(userDetails);
+
+        underTest.getUserDetails(AUTH_TOKEN);
+        underTest.getUserDetails(newToken);
+
+        verify(idamClient, times(1)).getUserDetails(AUTH_TOKEN);
+        verify(idamClient, times(1)).getUserDetails(newToken);
+    }
+
     private CaseDetails createCaseDetails() {
         LinkedHashMap<String, Object> data = new LinkedHashMap<>();
         data.put(MIGRATION_ID_KEY, DFPL_1124);
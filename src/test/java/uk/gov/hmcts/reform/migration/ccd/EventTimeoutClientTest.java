@@ -0,0 +1,55 @@
+package uk.gov.hmcts.reform.migration.ccd;
+
+import feign.Request;
+import feign.Response;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventTimeoutClientTest {
+
+    private static final String CCD = "http://ccd-data-store-api";
+
+    private final Request.Options defaults = new Request.Options(1, SECONDS, 10, SECONDS, true);
+    private final Request.Options startEvent = new Request.Options(1, SECONDS, 20, SECONDS, true);
+    private final Request.Options submitEvent = new Request.Options(1, SECONDS, 120, SECONDS, true);
+
+    private final AtomicReference<Request.Options> used = new AtomicReference<>();
+    private final EventTimeoutClient client = new EventTimeoutClient((request, options) -> {
+        used.set(options);
+        return Response.builder().status(200).request(request).headers(Map.of()).build();
+    }, startEvent, submitEvent);
+
+    @Test
+    void shouldUseTheStartEventTimeoutToStartAnEvent() throws Exception {
+        client.execute(request(Request.HttpMethod.GET, CCD + "/cases/1234/event-triggers/migrateCase/token"), defaults);
+
+        assertThat(used.get()).isSameAs(startEvent);
+    }
+
+    @Test
+    void shouldUseTheSubmitEventTimeoutToSubmitAnEvent() throws Exception {
+        client.execute(request(Request.HttpMethod.POST, CCD + "/cases/1234/events?ignore-warning=true"), defaults);
+
+        assertThat(used.get()).isSameAs(submitEvent);
+    }
+
+    @Test
+    void shouldKeepTheDefaultsForEverythingElse() {
+        assertThat(client.optionsFor(request(Request.HttpMethod.POST, CCD + "/searchCases?ctid=A58"), defaults))
+            .isSameAs(defaults);
+        assertThat(client.optionsFor(request(Request.HttpMethod.POST, "http://idam-api/o/token"), defaults))
+            .isSameAs(defaults);
+        assertThat(client.optionsFor(request(Request.HttpMethod.GET, CCD + "/cases/1234/events"), defaults))
+            .isSameAs(defaults);
+    }
+
+    private static Request request(Request.HttpMethod method, String url) {
+        return Request.create(method, url, Map.of(), new byte[0], StandardCharsets.UTF_8, null);
+    }
+}
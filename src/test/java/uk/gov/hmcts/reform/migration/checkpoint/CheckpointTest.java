@@ -0,0 +1,118 @@
+package uk.gov.hmcts.reform.migration.checkpoint;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CheckpointTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void shouldReplayTheLastOutcomeOfEachCase() throws IOException {
+        Path file = dir.resolve("test.checkpoint");
+        Files.writeString(file, "M 1\nF 2\nF 3\nM 3\nS 4\nM 5\nF 5\n");
+
+        try (Checkpoint checkpoint = Checkpoint.open(file)) {
+            assertThat(checkpoint.isDone(1)).isTrue();
+            assertThat(checkpoint.isDone(2)).isFalse();
+            assertThat(checkpoint.isDone(3)).isTrue();
+            assertThat(checkpoint.isDone(4)).isTrue();
+            assertThat(checkpoint.isDone(5)).isFalse();
+            assertThat(checkpoint.getFailed()).containsExactlyInAnyOrder(2L, 5L);
+        }
+    }
+
+    @Test
+    void shouldKeepTheLatestCursorOfEachSlice() throws IOException {
+        Path file = dir.resolve("test.checkpoint");
+        Files.writeString(file, "C a 10\nC b 20\nC a 30\n");
+
+        try (Checkpoint checkpoint = Checkpoint.open(file)) {
+            assertThat(checkpoint.getCursor("a")).contains("30");
+            assertThat(checkpoint.getCursor("b")).contains("20");
+            assertThat(checkpoint.getCursor("c")).isEmpty();
+        }
+    }
+
+    @Test
+    void shouldIgnoreALineCutShort() throws IOException {
+        Path file = dir.resolve("test.checkpoint");
+        Files.writeString(file, "M 1\nC a\nM");
+
+        try (Checkpoint checkpoint = Checkpoint.open(file)) {
+            assertThat(checkpoint.isDone(1)).isTrue();
+            assertThat(checkpoint.getCursor("a")).isEmpty();
+            checkpoint.migrated(2);
+        }
+
+        try (Checkpoint checkpoint = Checkpoint.open(file)) {
+            assertThat(checkpoint.isDone(2)).isTrue();
+        }
+    }
+
+    @Test
+    void shouldAppendProgressForTheNextRun() throws IOException {
+        Path file = dir.resolve("test.checkpoint");
+
+        try (Checkpoint checkpoint = Checkpoint.open(file)) {
+            checkpoint.migrated(1);
+            checkpoint.skipped(2);
+            checkpoint.failed(3);
+            checkpoint.cursor("a", "3");
+        }
+
+        try (Checkpoint checkpoint = Checkpoint.open(file)) {
+            assertThat(checkpoint.isDone(1)).isTrue();
+            assertThat(checkpoint.isDone(2)).isTrue();
+            assertThat(checkpoint.isFailed(3)).isTrue();
+            assertThat(checkpoint.getCursor("a")).contains("3");
+        }
+    }
+
+    @Test
+    void shouldKeepTheBoundsEachQueryWasSlicedBetween() throws IOException {
+        Path file = dir.resolve("test.checkpoint");
+
+        try (Checkpoint checkpoint = Checkpoint.open(file)) {
+            checkpoint.bounds("a", 10, 20);
+        }
+
+        try (Checkpoint checkpoint = Checkpoint.open(file)) {
+            assertThat(checkpoint.getBounds("a")).contains(new Checkpoint.Bounds(10, 20));
+            assertThat(checkpoint.getBounds("b")).isEmpty();
+        }
+    }
+
+    @Test
+    void shouldStartAfreshOnceARunIsComplete() throws IOException {
+        Path file = dir.resolve("test.checkpoint");
+        Checkpoint completed = Checkpoint.open(file);
+        completed.migrated(1);
+        completed.cursor("a", "1");
+
+        completed.complete();
+
+        assertThat(file).doesNotExist();
+        assertThat(Files.readAllLines(dir.resolve("test.checkpoint" + Checkpoint.COMPLETED_SUFFIX)))
+            .containsExactly("M 1", "C a 1");
+        try (Checkpoint checkpoint = Checkpoint.open(file)) {
+            assertThat(checkpoint.isDone(1)).isFalse();
+            assertThat(checkpoint.getCursor("a")).isEmpty();
+        }
+    }
+
+    @Test
+    void shouldRecordNothingWhenDisabled() {
+        Checkpoint.DISABLED.migrated(1);
+
+        assertThat(Checkpoint.DISABLED.isEnabled()).isFalse();
+        assertThat(Checkpoint.DISABLED.isDone(1)).isFalse();
+    }
+}
@@ -0,0 +1,49 @@
+package uk.gov.hmcts.reform.migration.checkpoint;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PageTrackerTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void shouldOnlyAdvanceOnceEveryEarlierPageHasFinished() throws IOException {
+        Path file = dir.resolve("test.checkpoint");
+        try (Checkpoint checkpoint = Checkpoint.open(file)) {
+            PageTracker tracker = new PageTracker(checkpoint);
+            PageTracker.Slice slice = tracker.slice("a");
+            slice.pageLoaded("2", List.of(1L, 2L));
+            slice.pageLoaded("4", List.of(3L, 4L));
+
+            tracker.caseFinished(3);
+            tracker.caseFinished(4);
+            tracker.caseFinished(1);
+            assertThat(Files.readAllLines(file)).isEmpty();
+
+            tracker.caseFinished(2);
+        }
+
+        assertThat(Files.readAllLines(file)).containsExactly("C a 4");
+    }
+
+    @Test
+    void shouldAdvancePastAPageWithNothingQueued() throws IOException {
+        Path file = dir.resolve("test.checkpoint");
+        try (Checkpoint checkpoint = Checkpoint.open(file)) {
+            PageTracker.Slice slice = new PageTracker(checkpoint).slice("a");
+
+            slice.pageLoaded("2", List.of());
+        }
+
+        assertThat(Files.readAllLines(file)).containsExactly("C a 2");
+    }
+}
@@ -0,0 +1,88 @@
+package uk.gov.hmcts.reform.migration.results;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CaseIdFileReaderTest {
+
+    private static final long FIRST = 1_600_000_000_000_000L;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void shouldReadEveryCaseReferenceInTheFile() throws IOException {
+        Path file = dir.resolve("ids.txt");
+        Files.writeString(file, FIRST + "\r\n\n" + (FIRST + 1) + "," + (FIRST + 2) + "|" + (FIRST + 3) + "\n  "
+            + (FIRST + 4));
+
+        try (CaseIdFileReader reader = new CaseIdFileReader(file)) {
+            assertThat(readAll(reader)).containsExactly(FIRST, FIRST + 1, FIRST + 2, FIRST + 3, FIRST + 4);
+            assertThat(reader.getRead()).isEqualTo(5);
+            assertThat(reader.getInvalid()).isZero();
+        }
+    }
+
+    @Test
+    void shouldSkipEntriesThatAreNotCaseReferences() throws IOException {
+        Path file = dir.resolve("ids.txt");
+        Files.writeString(file, "123\n" + FIRST + "\nabc" + (FIRST + 1) + "\n" + (FIRST + 2) + "9\n" + (FIRST + 3));
+
+        try (CaseIdFileReader reader = new CaseIdFileReader(file)) {
+            assertThat(readAll(reader)).containsExactly(FIRST, FIRST + 3);
+            assertThat(reader.getInvalid()).isEqualTo(3);
+        }
+    }
+
+    @Test
+    void shouldSkipAReferenceThatIsAllZeros() throws IOException {
+        Path file = dir.resolve("ids.txt");
+        Files.writeString(file, FIRST + "\n0000000000000000\n" + (FIRST + 1));
+
+        try (CaseIdFileReader reader = new CaseIdFileReader(file)) {
+            assertThat(readAll(reader)).containsExactly(FIRST, FIRST + 1);
+            assertThat(reader.getInvalid()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void shouldReadTheFilesTheResultStoreWrites() throws IOException {
+        try (CaseIdFile written = new CaseIdFile(dir.resolve("failed.txt.gz"), true)) {
+            LongStream.range(FIRST, FIRST + 100_000).forEach(written::add);
+        }
+
+        try (CaseIdFileReader reader = new CaseIdFileReader(dir.resolve("failed.txt.gz"))) {
+            List<Long> read = readAll(reader);
+            assertThat(read).hasSize(100_000);
+            assertThat(read.get(0)).isEqualTo(FIRST);
+            assertThat(read.get(99_999)).isEqualTo(FIRST + 99_999);
+        }
+    }
+
+    @Test
+    void shouldReadNothingFromAnEmptyFile() throws IOException {
+        Path file = Files.createFile(dir.resolve("ids.txt"));
+
+        try (CaseIdFileReader reader = new CaseIdFileReader(file)) {
+            assertThat(reader.next()).isEqualTo(CaseIdFileReader.END_OF_FILE);
+        }
+    }
+
+    private static List<Long> readAll(CaseIdFileReader reader) throws IOException {
+        List<Long> caseIds = new ArrayList<>();
+        long caseId;
+        while ((caseId = reader.next()) != CaseIdFileReader.END_OF_FILE) {
+            caseIds.add(caseId);
+        }
+        return caseIds;
+    }
+}
@@ -0,0 +1,86 @@
+package uk.gov.hmcts.reform.migration.results;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CaseIdSetTest {
+
+    private static final long FIRST = 1_600_000_000_000_000L;
+
+    private final CaseIdSet set = new CaseIdSet();
+
+    @Test
+    void shouldOnlyAddACaseIdOnce() {
+        assertThat(set.add(FIRST)).isTrue();
+        assertThat(set.add(FIRST + 1)).isTrue();
+
+        assertThat(set.add(FIRST)).isFalse();
+        assertThat(set.size()).isEqualTo(2);
+        assertThat(set.contains(FIRST)).isTrue();
+        assertThat(set.contains(FIRST + 2)).isFalse();
+    }
+
+    @Test
+    void shouldKeepEveryIdAsItGrows() {
+        for (long caseId = FIRST; caseId < FIRST + 500_000; caseId++) {
+            assertThat(set.add(caseId)).isTrue();
+        }
+
+        assertThat(set.size()).isEqualTo(500_000);
+        for (long caseId = FIRST; caseId < FIRST + 500_000; caseId++) {
+            assertThat(set.contains(caseId)).isTrue();
+        }
+        assertThat(set.contains(FIRST + 500_000)).isFalse();
+    }
+
+    @Test
+    void shouldLetExactlyOneCallerAddEachIdWhenAddingConcurrently() throws Exception {
+        int ids = 200_000;
+        AtomicInteger added = new AtomicInteger();
+        List<Future<?>> adders = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 8; i++) {
+                // each adder starts somewhere else so they collide on ids that are being added right now
+                long offset = i * 25_000L;
+                adders.add(executor.submit(() -> {
+                    for (long n = 0; n < ids; n++) {
+                        if (set.add(FIRST + (n + offset) % ids)) {
+                            added.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> adder : adders) {
+                adder.get();
+            }
+        }
+
+        assertThat(added.get()).isEqualTo(ids);
+        assertThat(set.size()).isEqualTo(ids);
+    }
+
+    @Test
+    void shouldForgetEveryIdWhenCleared() {
+        set.add(FIRST);
+
+        set.clear();
+
+        assertThat(set.size()).isZero();
+        assertThat(set.add(FIRST)).isTrue();
+    }
+
+    @Test
+    void shouldRejectZeroWhichMarksAnEmptySlot() {
+        assertThatThrownBy(() -> set.add(0)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(set.contains(0)).isFalse();
+    }
+}
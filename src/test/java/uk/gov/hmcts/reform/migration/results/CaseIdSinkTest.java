@@ -0,0 +1,77 @@
+package uk.gov.hmcts.reform.migration.results;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CaseIdSinkTest {
+
+    @Test
+    void shouldKeepIdsInTheOrderTheyWereAdded() {
+        CaseIdSink sink = new CaseIdSink();
+        sink.add(3);
+        sink.add(1);
+        sink.add(2);
+
+        assertThat(sink.size()).isEqualTo(3);
+        assertThat(sink.toArray()).containsExactly(3, 1, 2);
+        assertThat(sink).hasToString("[3, 1, 2]");
+    }
+
+    @Test
+    void shouldGrowPastTheInitialChunks() {
+        CaseIdSink sink = new CaseIdSink();
+        LongStream.rangeClosed(1, 100_000).forEach(sink::add);
+
+        assertThat(sink.toArray()).containsExactly(LongStream.rangeClosed(1, 100_000).toArray());
+    }
+
+    @Test
+    void shouldNotLoseIdsAddedConcurrently() throws InterruptedException {
+        CaseIdSink sink = new CaseIdSink();
+        int threads = 32;
+        int perThread = 20_000;
+        CountDownLatch start = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            for (int t = 0; t < threads; t++) {
+                long first = (long) t * perThread;
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    for (long id = first; id < first + perThread; id++) {
+                        sink.add(id);
+                    }
+                });
+            }
+            start.countDown();
+        }
+
+        long[] ids = sink.toArray();
+        Arrays.sort(ids);
+        assertThat(ids).containsExactly(LongStream.range(0, (long) threads * perThread).toArray());
+    }
+
+    @Test
+    void shouldBeEmptyOnceCleared() {
+        CaseIdSink sink = new CaseIdSink();
+        LongStream.rangeClosed(1, 5_000).forEach(sink::add);
+
+        sink.clear();
+
+        assertThat(sink.isEmpty()).isTrue();
+        assertThat(sink.toArray()).isEmpty();
+        sink.add(7);
+        assertThat(sink.toArray()).containsExactly(7);
+    }
+}
@@ -0,0 +1,46 @@
+package uk.gov.hmcts.reform.migration.results;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class LatencyHistogramTest {
+
+    @Test
+    void shouldReportPercentilesWithinTheBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int millis = 1; millis <= 1_000; millis++) {
+            histogram.record(Duration.ofMillis(millis).toNanos());
+        }
+
+        assertThat(histogram.count()).isEqualTo(1_000);
+        assertThat(histogram.percentile(0.5).toMillis()).isCloseTo(500, within(500L / 16));
+        assertThat(histogram.percentile(0.95).toMillis()).isCloseTo(950, within(950L / 16));
+        assertThat(histogram.percentile(0.99).toMillis()).isCloseTo(990, within(990L / 16));
+    }
+
+    @Test
+    void shouldMapEveryBucketBackToItsLowerBound() {
+        for (long micros : new long[]{0, 1, 15, 16, 17, 1_000, 123_456, Long.MAX_VALUE / 1_000}) {
+            long lowerBound = LatencyHistogram.lowerBoundOf(LatencyHistogram.bucketOf(micros));
+
+            assertThat(lowerBound).isLessThanOrEqualTo(micros);
+            assertThat(micros - lowerBound).isLessThanOrEqualTo(micros / 16);
+        }
+    }
+
+    @Test
+    void shouldReportZeroWhenEmptyOrReset() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertThat(histogram.percentile(0.95)).isEqualTo(Duration.ZERO);
+
+        histogram.record(Duration.ofSeconds(1).toNanos());
+        histogram.reset();
+
+        assertThat(histogram.count()).isZero();
+        assertThat(histogram.percentile(0.95)).isEqualTo(Duration.ZERO);
+    }
+}
@@ -0,0 +1,70 @@
+package uk.gov.hmcts.reform.migration.results;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResultStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void shouldWriteOneIdPerLine() throws IOException {
+        try (ResultFiles files = new ResultStore(dir.toString(), false).open("ADOP-1")) {
+            files.migrated(1);
+            files.failed(2);
+            files.failed(3);
+        }
+
+        assertThat(Files.readAllLines(dir.resolve("ADOP-1-migrated.txt"))).containsExactly("1");
+        assertThat(Files.readAllLines(dir.resolve("ADOP-1-skipped.txt"))).isEmpty();
+        assertThat(Files.readAllLines(dir.resolve("ADOP-1-failed.txt"))).containsExactly("2", "3");
+    }
+
+    @Test
+    void shouldGzipWhenAsked() throws IOException {
+        try (ResultFiles files = new ResultStore(dir.toString(), true).open("ADOP-1")) {
+            files.skipped(4);
+            files.skipped(5);
+            assertThat(files.getSkippedFile()).contains(dir.resolve("ADOP-1-skipped.txt.gz"));
+        }
+
+        Path gzipped = dir.resolve("ADOP-1-skipped.txt.gz");
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+            new GZIPInputStream(Files.newInputStream(gzipped)), StandardCharsets.US_ASCII))) {
+            assertThat(reader.lines()).containsExactly("4", "5");
+        }
+    }
+
+    @Test
+    void shouldReplaceTheFilesOfAnEarlierRun() throws IOException {
+        try (ResultFiles files = new ResultStore(dir.toString(), false).open("ADOP-1")) {
+            files.failed(1);
+        }
+        try (ResultFiles files = new ResultStore(dir.toString(), false).open("ADOP-1")) {
+            files.failed(2);
+        }
+
+        assertThat(Files.readAllLines(dir.resolve("ADOP-1-failed.txt"))).isEqualTo(List.of("2"));
+    }
+
+    @Test
+    void shouldWriteNothingWhenNoDirectoryIsSet() {
+        ResultFiles files = new ResultStore("", false).open("ADOP-1");
+        files.failed(1);
+
+        assertThat(files).isSameAs(ResultFiles.DISABLED);
+        assertThat(files.getFailedFile()).isEmpty();
+    }
+}
@@ -0,0 +1,38 @@
+package uk.gov.hmcts.reform.migration.retry;
+
+import feign.FeignException;
+import feign.Request;
+import org.junit.jupiter.api.Test;
+import uk.gov.hmcts.reform.migration.ccd.CcdFailure;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CcdFailureRetryPolicyTest {
+
+    private static final Request REQUEST = Request.create(Request.HttpMethod.POST, "http://ccd/cases/1/events",
+        Map.of(), null, StandardCharsets.UTF_8, null);
+
+    private final CcdFailureRetryPolicy policy = new CcdFailureRetryPolicy(Map.of(
+        CcdFailure.CONFLICT, (failure, attempts, elapsed) -> Optional.of(Duration.ofMillis(100)),
+        CcdFailure.SERVER_ERROR, (failure, attempts, elapsed) -> Optional.of(Duration.ofSeconds(5))));
+
+    @Test
+    void shouldBackOffByHowCcdFailed() {
+        assertThat(policy.retryAfter(new FeignException.Conflict("stale", REQUEST, null, Map.of()), 1,
+            Duration.ZERO)).contains(Duration.ofMillis(100));
+        assertThat(policy.retryAfter(new FeignException.BadGateway("down", REQUEST, null, Map.of()), 1,
+            Duration.ZERO)).contains(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void shouldNotRetryFailuresWithoutAPolicy() {
+        assertThat(policy.retryAfter(new FeignException.UnprocessableEntity("invalid", REQUEST, null, Map.of()), 1,
+            Duration.ZERO)).isEmpty();
+        assertThat(policy.retryAfter(new IllegalStateException("bug"), 1, Duration.ZERO)).isEmpty();
+    }
+}
@@ -0,0 +1,56 @@
+package uk.gov.hmcts.reform.migration.retry;
+
+import feign.FeignException;
+import feign.Request;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExponentialBackoffRetryPolicyTest {
+
+    private static final Request REQUEST = Request.create(Request.HttpMethod.POST, "http://ccd/searchCases",
+        Map.of(), null, StandardCharsets.UTF_8, null);
+    private static final RuntimeException UNAVAILABLE =
+        new FeignException.ServiceUnavailable("down", REQUEST, null, Map.of());
+
+    private final ExponentialBackoffRetryPolicy policy = new ExponentialBackoffRetryPolicy(Duration.ofMillis(100),
+        Duration.ofSeconds(1), 10, Duration.ofSeconds(30), ExponentialBackoffRetryPolicy.TRANSIENT_CCD_FAILURES);
+
+    @Test
+    void shouldDoubleTheDelayUpToTheMaximum() {
+        assertThat(policy.backoff(1)).isEqualTo(Duration.ofMillis(100));
+        assertThat(policy.backoff(2)).isEqualTo(Duration.ofMillis(200));
+        assertThat(policy.backoff(4)).isEqualTo(Duration.ofMillis(800));
+        assertThat(policy.backoff(5)).isEqualTo(Duration.ofSeconds(1));
+        assertThat(policy.backoff(500)).isEqualTo(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void shouldWaitBetweenHalfAndAllOfTheBackoff() {
+        for (int i = 0; i < 100; i++) {
+            assertThat(policy.retryAfter(UNAVAILABLE, 3, Duration.ZERO))
+                .hasValueSatisfying(delay -> assertThat(delay).isBetween(Duration.ofMillis(200),
+                    Duration.ofMillis(400)));
+        }
+    }
+
+    @Test
+    void shouldOnlyRetryTransientFailures() {
+        assertThat(policy.retryAfter(new FeignException.TooManyRequests("slow down", REQUEST, null, Map.of()), 1,
+            Duration.ZERO)).isPresent();
+        assertThat(policy.retryAfter(new FeignException.BadRequest("malformed", REQUEST, null, Map.of()), 1,
+            Duration.ZERO)).isEmpty();
+        assertThat(policy.retryAfter(new IllegalStateException("bug"), 1, Duration.ZERO)).isEmpty();
+    }
+
+    @Test
+    void shouldStopAtTheAttemptLimitOrTheBudget() {
+        assertThat(policy.retryAfter(UNAVAILABLE, 9, Duration.ZERO)).isPresent();
+        assertThat(policy.retryAfter(UNAVAILABLE, 10, Duration.ZERO)).isEmpty();
+        assertThat(policy.retryAfter(UNAVAILABLE, 1, Duration.ofSeconds(30))).isEmpty();
+    }
+}
@@ -1,5 +1,6 @@
 package uk.gov.hmcts.reform.migration.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -37,7 +38,7 @@ class DataMigrationServiceImplTest {
 
     @BeforeEach
     void setUp() {
-        dataMigrationService = new DataMigrationServiceImpl();
+        dataMigrationService = new DataMigrationServiceImpl(new ObjectMapper());
 
         Map<String, String> court = Map.of("code", "344",
             "name", "Family Court sitting at Swansea",
@@ -0,0 +1,37 @@
+package uk.gov.hmcts.reform.migration.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import uk.gov.hmcts.reform.domain.model.DfjAreaCourtMapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DfjAreaLookUpServiceTest {
+
+    private final DfjAreaLookUpService service = new DfjAreaLookUpService(Jackson2ObjectMapperBuilder.json().build());
+
+    @Test
+    void shouldFindTheDfjAreaOfACourt() {
+        assertThat(service.getDfjArea("344"))
+            .isEqualTo(new DfjAreaCourtMapping("344", "swanseaDFJCourt", "SWANSEA"));
+        assertThat(service.findDfjArea("344")).contains(service.getDfjArea("344"));
+    }
+
+    @Test
+    void shouldThrowForAnUnknownCourtOnlyWhenAsked() {
+        assertThatThrownBy(() -> service.getDfjArea("999"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("No dfjArea found for court code: 999");
+        assertThat(service.findDfjArea("999")).isEmpty();
+        assertThat(service.findDfjArea(null)).isEmpty();
+    }
+
+    @Test
+    void shouldFindEveryCourtInADfjArea() {
+        assertThat(service.getCourts("SWANSEA"))
+            .extracting(DfjAreaCourtMapping::getCourtCode)
+            .containsExactlyInAnyOrder("102", "217", "253", "274", "344");
+        assertThat(service.getCourts("NOWHERE")).isEmpty();
+    }
+}
@@ -0,0 +1,109 @@
+package uk.gov.hmcts.reform.migration.throttling;
+
+import org.junit.jupiter.api.Test;
+import uk.gov.hmcts.reform.migration.ccd.CcdFailure;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static uk.gov.hmcts.reform.migration.ccd.CcdFailure.CLIENT_ERROR;
+import static uk.gov.hmcts.reform.migration.ccd.CcdFailure.SERVER_ERROR;
+import static uk.gov.hmcts.reform.migration.ccd.CcdFailure.THROTTLED;
+import static uk.gov.hmcts.reform.migration.throttling.AdaptiveConcurrencyLimiter.WINDOW_SIZE;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+    private static final long SLOW = Duration.ofSeconds(5).toNanos();
+
+    private final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 8, Duration.ofSeconds(1));
+
+    @Test
+    void shouldStartAtTheMinimumAndGrowWhileCallsSucceed() throws InterruptedException {
+        assertThat(limiter.getLimit()).isEqualTo(1);
+
+        complete(20, FAST, null);
+
+        assertThat(limiter.getLimit()).isGreaterThan(1).isLessThanOrEqualTo(8);
+    }
+
+    @Test
+    void shouldNotGrowBeyondTheMaximum() throws InterruptedException {
+        complete(1000, FAST, null);
+
+        assertThat(limiter.getLimit()).isEqualTo(8);
+    }
+
+    @Test
+    void shouldHalveTheLimitWhenCcdIsOverloaded() throws InterruptedException {
+        complete(1000, FAST, null);
+
+        complete(1, FAST, THROTTLED);
+
+        assertThat(limiter.getLimit()).isEqualTo(4);
+    }
+
+    @Test
+    void shouldOnlyBackOffOncePerWindowForABurstOfFailures() throws InterruptedException {
+        complete(1000, FAST, null);
+
+        complete(3, FAST, SERVER_ERROR);
+
+        assertThat(limiter.getLimit()).isEqualTo(4);
+    }
+
+    @Test
+    void shouldIgnoreFailuresThatAreNotOverload() throws InterruptedException {
+        complete(1000, FAST, null);
+
+        complete(1, FAST, CLIENT_ERROR);
+
+        assertThat(limiter.getLimit()).isEqualTo(8);
+    }
+
+    @Test
+    void shouldBackOffWhenTheP95LatencyIsOverTarget() throws InterruptedException {
+        complete(1000, FAST, null);
+
+        complete(WINDOW_SIZE, SLOW, null);
+
+        assertThat(limiter.getLimit()).isLessThan(8);
+    }
+
+    @Test
+    void shouldBlockWhenTheLimitIsReached() throws InterruptedException {
+        limiter.acquire();
+        CountDownLatch acquired = new CountDownLatch(1);
+        Thread waiting = new Thread(() -> {
+            try {
+                limiter.acquire();
+                acquired.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        waiting.start();
+
+        assertThat(acquired.await(200, TimeUnit.MILLISECONDS)).isFalse();
+        limiter.release(FAST, null);
+        assertThat(acquired.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void shouldRejectInvalidLimits() {
+        assertThatThrownBy(() -> new AdaptiveConcurrencyLimiter(0, 8, Duration.ofSeconds(1)))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new AdaptiveConcurrencyLimiter(4, 2, Duration.ofSeconds(1)))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void complete(int calls, long latency, CcdFailure failure) throws InterruptedException {
+        for (int i = 0; i < calls; i++) {
+            limiter.acquire();
+            limiter.release(latency, failure);
+        }
+    }
+}
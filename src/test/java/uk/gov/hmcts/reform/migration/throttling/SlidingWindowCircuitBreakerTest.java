@@ -0,0 +1,131 @@
+package uk.gov.hmcts.reform.migration.throttling;
+
+import org.junit.jupiter.api.Test;
+import uk.gov.hmcts.reform.domain.exception.CcdUnavailableException;
+import uk.gov.hmcts.reform.migration.ccd.CcdFailure;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static uk.gov.hmcts.reform.migration.ccd.CcdFailure.CLIENT_ERROR;
+import static uk.gov.hmcts.reform.migration.ccd.CcdFailure.CONFLICT;
+import static uk.gov.hmcts.reform.migration.ccd.CcdFailure.SERVER_ERROR;
+import static uk.gov.hmcts.reform.migration.ccd.CcdFailure.TIMEOUT;
+import static uk.gov.hmcts.reform.migration.throttling.SlidingWindowCircuitBreaker.State.CLOSED;
+import static uk.gov.hmcts.reform.migration.throttling.SlidingWindowCircuitBreaker.State.HALF_OPEN;
+import static uk.gov.hmcts.reform.migration.throttling.SlidingWindowCircuitBreaker.State.OPEN;
+
+class SlidingWindowCircuitBreakerTest {
+
+    private static final Duration OPEN_DURATION = Duration.ofMillis(100);
+
+    private final SlidingWindowCircuitBreaker circuitBreaker = new SlidingWindowCircuitBreaker(10, 4, 0.5,
+        OPEN_DURATION, 2);
+
+    @Test
+    void shouldOpenOnceEnoughOfTheRecentCallsFailed() {
+        call(null);
+        call(SERVER_ERROR);
+        call(null);
+        assertThat(circuitBreaker.getState()).isEqualTo(CLOSED);
+
+        call(TIMEOUT);
+
+        assertThat(circuitBreaker.getState()).isEqualTo(OPEN);
+        assertThatThrownBy(circuitBreaker::acquire)
+            .isInstanceOf(CcdUnavailableException.class)
+            .satisfies(e -> assertThat(((CcdUnavailableException) e).getRetryAfter())
+                .isPositive()
+                .isLessThanOrEqualTo(OPEN_DURATION));
+    }
+
+    @Test
+    void shouldOnlyCountFailuresThatMeanCcdIsStruggling() {
+        for (int i = 0; i < 10; i++) {
+            call(i % 2 == 0 ? CONFLICT : CLIENT_ERROR);
+        }
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CLOSED);
+    }
+
+    @Test
+    void shouldForgetFailuresThatHaveLeftTheWindow() {
+        call(null);
+        call(null);
+        call(null);
+        call(SERVER_ERROR);
+        call(SERVER_ERROR);
+        for (int i = 0; i < 10; i++) {
+            call(null);
+        }
+        call(SERVER_ERROR);
+        call(SERVER_ERROR);
+        call(SERVER_ERROR);
+        call(SERVER_ERROR);
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CLOSED);
+    }
+
+    @Test
+    void shouldCloseOnceEveryProbeSucceeds() throws InterruptedException {
+        open();
+
+        assertThat(circuitBreaker.awaitCallPermitted(Duration.ofSeconds(5))).isTrue();
+        assertThat(circuitBreaker.getState()).isEqualTo(HALF_OPEN);
+        CircuitBreaker.Permit firstProbe = circuitBreaker.acquire();
+        CircuitBreaker.Permit secondProbe = circuitBreaker.acquire();
+        assertThatThrownBy(circuitBreaker::acquire).isInstanceOf(CcdUnavailableException.class);
+        circuitBreaker.release(firstProbe, null);
+        circuitBreaker.release(secondProbe, null);
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CLOSED);
+    }
+
+    @Test
+    void shouldNotTakeACallFromBeforeTheCircuitOpenedForAProbe() throws InterruptedException {
+        CircuitBreaker.Permit slowCall = circuitBreaker.acquire();
+        open();
+        circuitBreaker.awaitCallPermitted(Duration.ofSeconds(5));
+        CircuitBreaker.Permit firstProbe = circuitBreaker.acquire();
+        CircuitBreaker.Permit secondProbe = circuitBreaker.acquire();
+
+        circuitBreaker.release(slowCall, null);
+
+        assertThat(circuitBreaker.getState()).isEqualTo(HALF_OPEN);
+        assertThatThrownBy(circuitBreaker::acquire).isInstanceOf(CcdUnavailableException.class);
+        circuitBreaker.release(firstProbe, null);
+        assertThat(circuitBreaker.getState()).isEqualTo(HALF_OPEN);
+        circuitBreaker.release(secondProbe, null);
+        assertThat(circuitBreaker.getState()).isEqualTo(CLOSED);
+    }
+
+    @Test
+    void shouldReopenWhenAProbeFails() throws InterruptedException {
+        open();
+        circuitBreaker.awaitCallPermitted(Duration.ofSeconds(5));
+
+        call(SERVER_ERROR);
+
+        assertThat(circuitBreaker.getState()).isEqualTo(OPEN);
+    }
+
+    @Test
+    void shouldHoldCallersBackWhileOpen() throws InterruptedException {
+        open();
+
+        assertThat(circuitBreaker.awaitCallPermitted(Duration.ofMillis(10))).isFalse();
+        assertThat(circuitBreaker.awaitCallPermitted(Duration.ofSeconds(5))).isTrue();
+    }
+
+    private void open() {
+        for (int i = 0; i < 4; i++) {
+            call(SERVER_ERROR);
+        }
+        assertThat(circuitBreaker.getState()).isEqualTo(OPEN);
+    }
+
+    private void call(CcdFailure failure) {
+        circuitBreaker.release(circuitBreaker.acquire(), failure);
+    }
+}
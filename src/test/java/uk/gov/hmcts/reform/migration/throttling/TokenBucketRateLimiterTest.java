@@ -0,0 +1,77 @@
+package uk.gov.hmcts.reform.migration.throttling;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketRateLimiterTest {
+
+    @Test
+    void shouldNeverWaitWhenUnlimited() {
+        long elapsed = time(() -> {
+            for (int i = 0; i < 10_000; i++) {
+                TokenBucketRateLimiter.UNLIMITED.acquire();
+            }
+        });
+
+        assertThat(TokenBucketRateLimiter.UNLIMITED.isUnlimited()).isTrue();
+        assertThat(Duration.ofNanos(elapsed)).isLessThan(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void shouldAllowTheBurstStraightAway() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 5);
+
+        long elapsed = time(() -> {
+            for (int i = 0; i < 5; i++) {
+                limiter.acquire();
+            }
+        });
+
+        assertThat(Duration.ofNanos(elapsed)).isLessThan(Duration.ofMillis(500));
+    }
+
+    @Test
+    void shouldSpacePermitsOutOnceTheBurstIsUsed() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(20, 1);
+
+        long elapsed = time(() -> {
+            for (int i = 0; i < 11; i++) {
+                limiter.acquire();
+            }
+        });
+
+        // first permit is free, the other ten are 50ms apart
+        assertThat(Duration.ofNanos(elapsed)).isGreaterThanOrEqualTo(Duration.ofMillis(450));
+    }
+
+    @Test
+    void shouldShareTheRateBetweenThreads() throws InterruptedException {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(40, 1);
+        Thread[] threads = new Thread[4];
+
+        long start = System.nanoTime();
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 5; j++) {
+                    limiter.acquire();
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // 20 permits at 40 per second, less the free first one
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(450));
+    }
+
+    private static long time(Runnable runnable) {
+        long start = System.nanoTime();
+        runnable.run();
+        return System.nanoTime() - start;
+    }
+}
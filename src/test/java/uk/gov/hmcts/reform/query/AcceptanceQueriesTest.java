@@ -0,0 +1,34 @@
+package uk.gov.hmcts.reform.query;
+
+import org.junit.jupiter.api.Test;
+import uk.gov.hmcts.reform.migration.query.AcceptanceQueries;
+import uk.gov.hmcts.reform.migration.query.EsQuery;
+import uk.gov.hmcts.reform.migration.query.ExistsQuery;
+import uk.gov.hmcts.reform.migration.query.MatchQuery;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AcceptanceQueriesTest {
+
+    private static final EsQuery QUERY = MatchQuery.of("state", "Draft");
+    private static final EsQuery ACCEPTANCE = ExistsQuery.of("data.court");
+
+    @Test
+    void shouldFilterTheQueryToAcceptedCases() {
+        assertThat(AcceptanceQueries.accepted(QUERY, ACCEPTANCE).toMap()).isEqualTo(Map.of("bool", Map.of(
+            "must", List.of(QUERY.toMap()),
+            "filter", List.of(ACCEPTANCE.toMap())
+        )));
+    }
+
+    @Test
+    void shouldExcludeAcceptedCasesFromTheRejectedQuery() {
+        assertThat(AcceptanceQueries.rejected(QUERY, ACCEPTANCE).toMap()).isEqualTo(Map.of("bool", Map.of(
+            "must", List.of(QUERY.toMap()),
+            "must_not", List.of(ACCEPTANCE.toMap())
+        )));
+    }
+}
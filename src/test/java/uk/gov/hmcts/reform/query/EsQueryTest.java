@@ -47,6 +47,33 @@ class EsQueryTest {
         assertThat(queryInContext).usingRecursiveComparison().isEqualTo(expectedContext);
     }
 
+    @Test
+    void shouldAddTheRequestedSourceFieldsAfterTheDefaultOnes() {
+        EsQuery query = new TestClass();
+        Sort sort = Sort.builder()
+            .clauses(List.of(
+                SortQuery.of("reference.keyword", SortOrder.DESC)
+            ))
+            .build();
+
+        final JSONObject queryInContext = query.toQueryContext(2, "123", sort, List.of("data.court", "reference"));
+
+        assertThat(queryInContext.get("_source")).isEqualTo(List.of("reference", "jurisdiction", "data.court"));
+        assertThat(queryInContext.get("search_after")).isEqualTo(List.of("123"));
+    }
+
+    @Test
+    void shouldOnlyAskForTheDefaultSourceWhenNoFieldsAreRequested() {
+        EsQuery query = new TestClass();
+        Sort sort = Sort.builder()
+            .clauses(List.of(
+                SortQuery.of("reference.keyword", SortOrder.DESC)
+            ))
+            .build();
+
+        assertThat(query.toQueryContext(2, sort, List.of())).isEqualTo(query.toQueryContext(2, sort));
+    }
+
     private static class TestClass implements EsQuery {
         @Override
         public Map<String, Object> toMap() {
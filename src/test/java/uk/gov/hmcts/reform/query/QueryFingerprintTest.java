@@ -0,0 +1,59 @@
+package uk.gov.hmcts.reform.query;
+
+import org.junit.jupiter.api.Test;
+import uk.gov.hmcts.reform.migration.query.BooleanQuery;
+import uk.gov.hmcts.reform.migration.query.EsQuery;
+import uk.gov.hmcts.reform.migration.query.ExistsQuery;
+import uk.gov.hmcts.reform.migration.query.Filter;
+import uk.gov.hmcts.reform.migration.query.MatchQuery;
+import uk.gov.hmcts.reform.migration.query.Must;
+import uk.gov.hmcts.reform.migration.query.QueryFingerprint;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QueryFingerprintTest {
+
+    private static final EsQuery QUERY = BooleanQuery.builder()
+        .must(Must.of(MatchQuery.of("state", "Submitted")))
+        .filter(Filter.builder()
+            .clauses(List.of(ExistsQuery.of("data.court")))
+            .build())
+        .build();
+
+    @Test
+    void shouldGiveTheSameQueryTheSameFingerprint() {
+        EsQuery same = BooleanQuery.builder()
+            .must(Must.of(MatchQuery.of("state", "Submitted")))
+            .filter(Filter.builder()
+                .clauses(List.of(ExistsQuery.of("data.court")))
+                .build())
+            .build();
+
+        assertThat(QueryFingerprint.of(same)).isEqualTo(QueryFingerprint.of(QUERY));
+    }
+
+    @Test
+    void shouldTellDifferentQueriesApart() {
+        EsQuery other = BooleanQuery.builder()
+            .must(Must.of(MatchQuery.of("state", "Closed")))
+            .filter(Filter.builder()
+                .clauses(List.of(ExistsQuery.of("data.court")))
+                .build())
+            .build();
+
+        assertThat(QueryFingerprint.of(other)).isNotEqualTo(QueryFingerprint.of(QUERY));
+    }
+
+    @Test
+    void shouldNotDependOnTheOrderOfTheQueryMap() {
+        EsQuery oneWay = () -> Map.of("bool", Map.of("must", "a", "filter", "b"));
+        EsQuery otherWay = () -> Map.of("bool", Map.of("filter", "b", "must", "a"));
+
+        assertThat(QueryFingerprint.of(oneWay))
+            .isEqualTo(QueryFingerprint.of(otherWay))
+            .hasSize(16);
+    }
+}
@@ -0,0 +1,49 @@
+package uk.gov.hmcts.reform.query;
+
+import org.junit.jupiter.api.Test;
+import uk.gov.hmcts.reform.migration.query.BooleanQuery;
+import uk.gov.hmcts.reform.migration.query.EsQuery;
+import uk.gov.hmcts.reform.migration.query.Filter;
+import uk.gov.hmcts.reform.migration.query.MatchQuery;
+import uk.gov.hmcts.reform.migration.query.Must;
+import uk.gov.hmcts.reform.migration.query.RangeQuery;
+import uk.gov.hmcts.reform.migration.query.ReferenceSlices;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReferenceSlicesTest {
+
+    private static final EsQuery QUERY = MatchQuery.of("state", "Draft");
+
+    @Test
+    void shouldSplitTheReferenceRangeIntoOpenEndedSlices() {
+        List<EsQuery> slices = ReferenceSlices.slice(QUERY, 1000, 1999, 4);
+
+        assertThat(slices).containsExactly(
+            slice(RangeQuery.builder().field("reference.keyword").lessThan("1250").build()),
+            slice(RangeQuery.builder().field("reference.keyword").greaterThanOrEqual("1250").lessThan("1500").build()),
+            slice(RangeQuery.builder().field("reference.keyword").greaterThanOrEqual("1500").lessThan("1750").build()),
+            slice(RangeQuery.builder().field("reference.keyword").greaterThanOrEqual("1750").build())
+        );
+    }
+
+    @Test
+    void shouldNotSplitWhenOnlyOneSliceIsRequested() {
+        assertThat(ReferenceSlices.slice(QUERY, 1000, 1999, 1)).containsExactly(QUERY);
+    }
+
+    @Test
+    void shouldNotCreateMoreSlicesThanThereAreReferences() {
+        assertThat(ReferenceSlices.slice(QUERY, 1000, 1001, 8)).hasSize(2);
+        assertThat(ReferenceSlices.slice(QUERY, 1000, 1000, 8)).containsExactly(QUERY);
+    }
+
+    private static EsQuery slice(RangeQuery range) {
+        return BooleanQuery.builder()
+            .must(Must.of(QUERY))
+            .filter(Filter.builder().clauses(List.of(range)).build())
+            .build();
+    }
+}
@@ -1,5 +1,9 @@
 package uk.gov.hmcts.reform.repository;
 
+import feign.FeignException;
+import feign.Request;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -8,16 +12,23 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import uk.gov.hmcts.reform.ccd.client.model.CaseDetails;
 import uk.gov.hmcts.reform.ccd.client.model.SearchResult;
 import uk.gov.hmcts.reform.migration.ccd.CoreCaseDataService;
+import uk.gov.hmcts.reform.migration.metrics.MigrationMetrics;
 import uk.gov.hmcts.reform.migration.query.BooleanQuery;
 import uk.gov.hmcts.reform.migration.query.EsQuery;
 import uk.gov.hmcts.reform.migration.query.ExistsQuery;
 import uk.gov.hmcts.reform.migration.query.Filter;
 import uk.gov.hmcts.reform.migration.repository.ElasticSearchRepository;
+import uk.gov.hmcts.reform.migration.retry.ExponentialBackoffRetryPolicy;
+import uk.gov.hmcts.reform.migration.retry.RetryPolicy;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -39,6 +50,9 @@ class ElasticSearchRepositoryTest {
             .build())
         .build();
 
+    private static final Request REQUEST = Request.create(Request.HttpMethod.POST, "http://ccd/searchCases",
+        Map.of(), null, StandardCharsets.UTF_8, null);
+
     private static final String INITIAL_QUERY = QUERY.toQueryContext(1, SORT_BY_REF).toString();
     private static final String AFTER_QUERY = QUERY.toQueryContext(1, 1, SORT_BY_REF).toString();
 
@@ -49,7 +63,8 @@ class ElasticSearchRepositoryTest {
 
     @BeforeEach
     void setUp() {
-        elasticSearchRepository = new ElasticSearchRepository(coreCaseDataService);
+        elasticSearchRepository = new ElasticSearchRepository(coreCaseDataService, MigrationMetrics.noop(),
+            RetryPolicy.NONE);
     }
 
     @Test
@@ -102,4 +117,56 @@ class ElasticSearchRepositoryTest {
                                                       INITIAL_QUERY);
         assertThat(returnCaseDetails).hasSize(1);
     }
+
+    @Test
+    void shouldRetryATransientFailure() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        elasticSearchRepository = new ElasticSearchRepository(coreCaseDataService, new MigrationMetrics(registry),
+            retryPolicy());
+        SearchResult searchResult = mock(SearchResult.class);
+        when(searchResult.getCases()).thenReturn(List.of(CaseDetails.builder().id(1L).build()));
+        when(coreCaseDataService.searchCases(USER_TOKEN, CASE_TYPE, INITIAL_QUERY))
+            .thenThrow(new FeignException.ServiceUnavailable("down", REQUEST, null, Map.of()))
+            .thenReturn(searchResult);
+
+        assertThat(elasticSearchRepository.search(USER_TOKEN, CASE_TYPE, QUERY, 1, null)).hasSize(1);
+
+        verify(coreCaseDataService, times(2)).searchCases(USER_TOKEN, CASE_TYPE, INITIAL_QUERY);
+        assertThat(registry.get(MigrationMetrics.ES_RETRIES_COUNTER).tag("failure", "server_error").counter()
+            .count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotRetryAQueryEsRejects() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        elasticSearchRepository = new ElasticSearchRepository(coreCaseDataService, new MigrationMetrics(registry),
+            retryPolicy());
+        when(coreCaseDataService.searchCases(USER_TOKEN, CASE_TYPE, INITIAL_QUERY))
+            .thenThrow(new FeignException.BadRequest("malformed query", REQUEST, null, Map.of()));
+
+        assertThatThrownBy(() -> elasticSearchRepository.search(USER_TOKEN, CASE_TYPE, QUERY, 1, null))
+            .isInstanceOf(FeignException.BadRequest.class);
+
+        verify(coreCaseDataService, times(1)).searchCases(USER_TOKEN, CASE_TYPE, INITIAL_QUERY);
+        assertThat(registry.get(MigrationMetrics.ES_GIVE_UPS_COUNTER).tag("failure", "client_error").counter()
+            .count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldGiveUpOnceOutOfRetries() {
+        elasticSearchRepository = new ElasticSearchRepository(coreCaseDataService, MigrationMetrics.noop(),
+            retryPolicy());
+        when(coreCaseDataService.searchCases(USER_TOKEN, CASE_TYPE, INITIAL_QUERY))
+            .thenThrow(new FeignException.ServiceUnavailable("down", REQUEST, null, Map.of()));
+
+        assertThatThrownBy(() -> elasticSearchRepository.search(USER_TOKEN, CASE_TYPE, QUERY, 1, null))
+            .isInstanceOf(FeignException.ServiceUnavailable.class);
+
+        verify(coreCaseDataService, times(3)).searchCases(USER_TOKEN, CASE_TYPE, INITIAL_QUERY);
+    }
+
+    private static RetryPolicy retryPolicy() {
+        return new ExponentialBackoffRetryPolicy(Duration.ofMillis(1), Duration.ofMillis(5), 3, Duration.ofSeconds(5),
+            ExponentialBackoffRetryPolicy.TRANSIENT_CCD_FAILURES);
+    }
 }
@@ -0,0 +1,110 @@
+package uk.gov.hmcts.reform.repository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.hmcts.reform.ccd.client.model.CaseDetails;
+import uk.gov.hmcts.reform.domain.exception.EsSearchException;
+import uk.gov.hmcts.reform.migration.query.BooleanQuery;
+import uk.gov.hmcts.reform.migration.query.EsQuery;
+import uk.gov.hmcts.reform.migration.query.ExistsQuery;
+import uk.gov.hmcts.reform.migration.query.Filter;
+import uk.gov.hmcts.reform.migration.repository.ElasticSearchRepository;
+import uk.gov.hmcts.reform.migration.repository.EsPageReader;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EsPageReaderTest {
+
+    private static final String USER_TOKEN = "TEST_USER_TOKEN";
+    private static final String CASE_TYPE = "CASE_TYPE";
+    private static final int SIZE = 2;
+
+    private static final EsQuery QUERY = BooleanQuery.builder()
+        .filter(Filter.builder()
+            .clauses(List.of(ExistsQuery.of("data.court")))
+            .build())
+        .build();
+
+    @Mock
+    private ElasticSearchRepository elasticSearchRepository;
+
+    @Test
+    void shouldReadPagesInOrderUsingTheLastReferenceAsTheCursor() throws InterruptedException {
+        when(elasticSearchRepository.search(USER_TOKEN, CASE_TYPE, QUERY, SIZE, null, List.of()))
+            .thenReturn(cases(4L, 3L));
+        when(elasticSearchRepository.search(USER_TOKEN, CASE_TYPE, QUERY, SIZE, "3", List.of()))
+            .thenReturn(cases(2L, 1L));
+        when(elasticSearchRepository.search(USER_TOKEN, CASE_TYPE, QUERY, SIZE, "1", List.of()))
+            .thenReturn(List.of());
+
+        try (EsPageReader reader = new EsPageReader(elasticSearchRepository, () -> USER_TOKEN, CASE_TYPE, QUERY,
+            SIZE, List.of(), null, 1)) {
+            assertThat(reader.nextPage()).extracting(CaseDetails::getId).containsExactly(4L, 3L);
+            assertThat(reader.nextPage()).extracting(CaseDetails::getId).containsExactly(2L, 1L);
+            assertThat(reader.nextPage()).isEmpty();
+        }
+    }
+
+    @Test
+    void shouldFetchTheNextPageBeforeTheCurrentOneIsRead() {
+        when(elasticSearchRepository.search(USER_TOKEN, CASE_TYPE, QUERY, SIZE, null, List.of()))
+            .thenReturn(cases(4L, 3L));
+        when(elasticSearchRepository.search(USER_TOKEN, CASE_TYPE, QUERY, SIZE, "3", List.of()))
+            .thenReturn(List.of());
+
+        try (EsPageReader reader = new EsPageReader(elasticSearchRepository, () -> USER_TOKEN, CASE_TYPE, QUERY,
+            SIZE, List.of(), null, 2)) {
+            verify(elasticSearchRepository, timeout(5000)).search(USER_TOKEN, CASE_TYPE, QUERY, SIZE, "3", List.of());
+        }
+    }
+
+    @Test
+    void shouldStartAfterTheGivenCursor() throws InterruptedException {
+        when(elasticSearchRepository.search(USER_TOKEN, CASE_TYPE, QUERY, SIZE, "3", List.of()))
+            .thenReturn(cases(2L, 1L));
+        when(elasticSearchRepository.search(USER_TOKEN, CASE_TYPE, QUERY, SIZE, "1", List.of()))
+            .thenReturn(List.of());
+
+        try (EsPageReader reader = new EsPageReader(elasticSearchRepository, () -> USER_TOKEN, CASE_TYPE, QUERY,
+            SIZE, List.of(), "3", 1)) {
+            assertThat(reader.nextPage()).extracting(CaseDetails::getId).containsExactly(2L, 1L);
+            assertThat(reader.nextPage()).isEmpty();
+        }
+    }
+
+    @Test
+    void shouldStopTheScanWhenASearchFails() throws InterruptedException {
+        IllegalStateException failure = new IllegalStateException("ES unavailable");
+        when(elasticSearchRepository.search(USER_TOKEN, CASE_TYPE, QUERY, SIZE, null, List.of()))
+            .thenReturn(cases(4L, 3L));
+        when(elasticSearchRepository.search(USER_TOKEN, CASE_TYPE, QUERY, SIZE, "3", List.of()))
+            .thenThrow(failure);
+
+        try (EsPageReader reader = new EsPageReader(elasticSearchRepository, () -> USER_TOKEN, CASE_TYPE, QUERY,
+            SIZE, List.of(), null, 1)) {
+            assertThat(reader.nextPage()).extracting(CaseDetails::getId).containsExactly(4L, 3L);
+            assertThatThrownBy(reader::nextPage)
+                .isInstanceOf(EsSearchException.class)
+                .hasMessage("Could not search for page 1 after case 3")
+                .hasCause(failure);
+            assertThatThrownBy(reader::nextPage).isInstanceOf(EsSearchException.class);
+        }
+        verify(elasticSearchRepository, times(1)).search(USER_TOKEN, CASE_TYPE, QUERY, SIZE, "3", List.of());
+    }
+
+    private static List<CaseDetails> cases(Long... ids) {
+        return List.of(ids).stream()
+            .map(id -> CaseDetails.builder().id(id).build())
+            .toList();
+    }
+}